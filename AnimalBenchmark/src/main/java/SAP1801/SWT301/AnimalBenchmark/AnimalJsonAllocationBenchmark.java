@@ -0,0 +1,61 @@
+package SAP1801.SWT301.AnimalBenchmark;
+
+import SAP1801.SWT301.AnimalUnitTest.converter.AnimalJsonComponent;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON mapping of {@code GET /animals} responses and {@code POST /animals/batch} bodies with
+ * Jackson's default bean mapping and with {@link AnimalJsonComponent}. Responses are written
+ * straight to a stream, as the message converter does with the servlet output stream. Compare
+ * {@code gc.alloc.rate.norm} (bytes per operation) from the gc profiler along with the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AnimalJsonAllocationBenchmark {
+    private static final TypeReference<List<AnimalDto>> ANIMAL_DTO_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"default", "lean"})
+    private String mapping;
+
+    private ObjectMapper objectMapper;
+    private List<Animal> animals;
+    private byte[] batchBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (mapping.equals("lean")) {
+            builder.modulesToInstall(AnimalJsonComponent.module());
+        }
+        objectMapper = builder.build();
+        animals = BenchmarkApplication.animals(size);
+        batchBody = objectMapper.writeValueAsBytes(animals.stream()
+                .map(animal -> new AnimalDto(animal.getName(), animal.getSpecies()))
+                .toList());
+    }
+
+    @Benchmark
+    public void writeAnimalList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), animals);
+    }
+
+    @Benchmark
+    public List<AnimalDto> readAnimalDtoList() throws IOException {
+        return objectMapper.readValue(batchBody, ANIMAL_DTO_LIST);
+    }
+}
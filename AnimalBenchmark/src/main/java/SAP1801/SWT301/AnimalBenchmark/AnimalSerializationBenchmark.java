@@ -0,0 +1,72 @@
+package SAP1801.SWT301.AnimalBenchmark;
+
+import SAP1801.SWT301.AnimalUnitTest.converter.AnimalColumnarHttpMessageConverter;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of the {@code List<Animal>} returned by {@code GET /animals} in each negotiable
+ * format: JSON and CBOR through an {@link ObjectMapper} configured the way Spring MVC configures its
+ * own, and the hand-written columnar format. The payload size of each format, plain and gzipped,
+ * is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AnimalSerializationBenchmark {
+    private static final TypeReference<List<Animal>> ANIMAL_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"json", "cbor", "columnar"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<Animal> animals;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> null;
+        };
+        animals = BenchmarkApplication.animals(size);
+        payload = serializeAnimalList();
+        System.out.printf("%n%s, %,d animals: %,d bytes, %,d gzipped%n", format, size, payload.length, gzip(payload).length);
+    }
+
+    @Benchmark
+    public byte[] serializeAnimalList() throws IOException {
+        return objectMapper == null
+                ? AnimalColumnarHttpMessageConverter.encode(animals)
+                : objectMapper.writeValueAsBytes(animals);
+    }
+
+    @Benchmark
+    public List<Animal> deserializeAnimalList() throws IOException {
+        return objectMapper == null
+                ? AnimalColumnarHttpMessageConverter.decode(payload)
+                : objectMapper.readValue(payload, ANIMAL_LIST);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,76 @@
+package SAP1801.SWT301.AnimalBenchmark;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalPage;
+import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRUD through {@link AnimalService} against embedded H2 at several table sizes, with the
+ * single-animal cache and Hibernate's second-level cache each switched off and on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AnimalServiceBenchmark {
+    @Param({"1000", "100000"})
+    private int tableSize;
+
+    @Param({"none", "caffeine"})
+    private String cacheType;
+
+    @Param({"false", "true"})
+    private String secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private AnimalService animalService;
+    private long[] ids;
+    private final AnimalDto update = new AnimalDto("Updated", "Updated species");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of("spring.cache.type", cacheType,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache", secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache", secondLevelCache));
+        animalService = context.getBean(AnimalService.class);
+        ids = BenchmarkApplication.seed(animalService, tableSize, i -> new AnimalDto("Animal " + i, "Species " + (i % 100)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Animal getAnimalById() {
+        return animalService.getAnimalById(randomId());
+    }
+
+    @Benchmark
+    public AnimalPage getAnimalPage() {
+        return animalService.getAnimalPage(randomId(), 50);
+    }
+
+    @Benchmark
+    public Animal updateAnimal() {
+        return animalService.updateAnimal(randomId(), update);
+    }
+
+    // Deletes what it creates so the table size stays fixed for the whole trial
+    @Benchmark
+    public Animal createAndDeleteAnimal() {
+        Animal animal = animalService.createAnimal(new AnimalDto("Transient", "Species 0"));
+        animalService.deleteAnimal(animal.getId());
+        return animal;
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,68 @@
+package SAP1801.SWT301.AnimalBenchmark;
+
+import SAP1801.SWT301.AnimalUnitTest.AnimalUnitTestApplication;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Boots the application without a web server against a fresh in-memory H2 database, so every
+ * benchmark trial starts from the same state. Hibernate's second-level and query caches are off
+ * unless a benchmark turns them on, so results stay comparable with runs from before they existed.
+ */
+public final class BenchmarkApplication {
+    private static final int SEED_CHUNK_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("logging.level.root", "warn");
+        defaults.put("spring.jpa.properties.hibernate.cache.use_second_level_cache", "false");
+        defaults.put("spring.jpa.properties.hibernate.cache.use_query_cache", "false");
+        defaults.putAll(properties);
+        // Passed as arguments because application.properties overrides the builder's default properties
+        String[] args = defaults.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(AnimalUnitTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    public static long[] seed(AnimalService animalService, int rows, IntFunction<AnimalDto> factory) {
+        long[] ids = new long[rows];
+        int next = 0;
+        for (int from = 0; from < rows; from += SEED_CHUNK_SIZE) {
+            List<AnimalDto> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+            for (int i = from; i < Math.min(from + SEED_CHUNK_SIZE, rows); i++) {
+                chunk.add(factory.apply(i));
+            }
+            for (Animal animal : animalService.createAnimals(chunk).getCreated()) {
+                ids[next++] = animal.getId();
+            }
+        }
+        return ids;
+    }
+
+    public static List<Animal> animals(int size) {
+        List<Animal> animals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            animals.add(new Animal((long) i + 1, "Animal " + i, "Species " + (i % 100)));
+        }
+        return animals;
+    }
+}
@@ -0,0 +1,48 @@
+package SAP1801.SWT301.AnimalBenchmark;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code findBySpecies} over 100k rows where each lookup matches {@code tableSize / speciesCount}
+ * rows, from the whole table down to a single row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SpeciesSelectivityBenchmark {
+    private static final int TABLE_SIZE = 100_000;
+
+    @Param({"1", "100", "10000", "100000"})
+    private int speciesCount;
+
+    private ConfigurableApplicationContext context;
+    private AnimalRepository animalRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of());
+        animalRepository = context.getBean(AnimalRepository.class);
+        BenchmarkApplication.seed(context.getBean(AnimalService.class), TABLE_SIZE,
+                i -> new AnimalDto("Animal " + i, "Species " + (i % speciesCount)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Animal> findBySpecies() {
+        return animalRepository.findBySpecies("Species " + ThreadLocalRandom.current().nextInt(speciesCount));
+    }
+}
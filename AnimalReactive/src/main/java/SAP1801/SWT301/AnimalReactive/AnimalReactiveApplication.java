@@ -0,0 +1,13 @@
+package SAP1801.SWT301.AnimalReactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class AnimalReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(AnimalReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,78 @@
+package SAP1801.SWT301.AnimalReactive.controller;
+
+import SAP1801.SWT301.AnimalReactive.dto.AnimalDto;
+import SAP1801.SWT301.AnimalReactive.dto.AnimalPage;
+import SAP1801.SWT301.AnimalReactive.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalReactive.model.Animal;
+import SAP1801.SWT301.AnimalReactive.service.AnimalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same operations as the blocking {@code /animals} API. The list and species endpoints stream
+ * their rows: ask for {@code application/x-ndjson} to receive one animal per line as it is read,
+ * with the database cursor paced by how fast the client consumes them.
+ */
+@RestController
+@RequestMapping("/animals")
+public class AnimalController {
+    private final AnimalService animalService;
+
+    @Autowired
+    public AnimalController(AnimalService animalService) {
+        this.animalService = animalService;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Animal> getAllAnimals() {
+        return animalService.getAllAnimals();
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<AnimalPage> getAnimalPage(@RequestParam(required = false) Long after, @RequestParam int limit) {
+        return animalService.getAnimalPage(after, limit);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Animal> getAnimalById(@PathVariable Long id) {
+        return animalService.getAnimalById(id);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Animal> createAnimal(@RequestBody AnimalDto animalDto) {
+        return animalService.createAnimal(animalDto);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<String> deleteAnimal(@PathVariable Long id) {
+        return animalService.deleteAnimal(id).thenReturn("Animal deleted");
+    }
+
+    @GetMapping(value = "/species/{species}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Animal> getAnimalBySpecies(@PathVariable String species) {
+        return animalService.getAnimalBySpecies(species);
+    }
+
+    @GetMapping(value = "/species/{species}", params = "limit")
+    public Mono<AnimalPage> getAnimalPageBySpecies(@PathVariable String species,
+                                                   @RequestParam(required = false) Long after,
+                                                   @RequestParam int limit) {
+        return animalService.getAnimalPageBySpecies(species, after, limit);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<Animal> updateAnimal(@PathVariable Long id, @RequestBody AnimalDto animalDto) {
+        return animalService.updateAnimal(id, animalDto);
+    }
+
+    @ExceptionHandler(AnimalNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(AnimalNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+}
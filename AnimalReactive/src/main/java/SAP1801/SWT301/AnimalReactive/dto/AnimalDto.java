@@ -0,0 +1,15 @@
+package SAP1801.SWT301.AnimalReactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimalDto {
+    private String name;
+    private String species;
+}
@@ -0,0 +1,22 @@
+package SAP1801.SWT301.AnimalReactive.dto;
+
+import SAP1801.SWT301.AnimalReactive.model.Animal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of animals ordered by id. {@code nextCursor} is the id to pass as
+ * {@code after} for the next page, or {@code null} when there are no more rows.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimalPage {
+    private List<Animal> content;
+    private Long nextCursor;
+}
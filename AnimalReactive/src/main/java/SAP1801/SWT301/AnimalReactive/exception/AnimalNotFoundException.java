@@ -0,0 +1,7 @@
+package SAP1801.SWT301.AnimalReactive.exception;
+
+public class AnimalNotFoundException extends RuntimeException {
+    public AnimalNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package SAP1801.SWT301.AnimalReactive.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("animal")
+public class Animal {
+    @Id
+    private Long id;
+    private String name;
+    private String species;
+}
@@ -0,0 +1,28 @@
+package SAP1801.SWT301.AnimalReactive.repository;
+
+import SAP1801.SWT301.AnimalReactive.model.Animal;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface AnimalRepository extends ReactiveCrudRepository<Animal, Long> {
+    Flux<Animal> findBySpecies(String species);
+
+    Flux<Animal> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    Flux<Animal> findBySpeciesAndIdGreaterThanOrderByIdAsc(String species, Long id, Limit limit);
+
+    @Modifying
+    @Query("delete from animal where id = :id")
+    Mono<Integer> deleteAnimalById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update animal set name = :name, species = :species where id = :id")
+    Mono<Integer> updateAnimalById(@Param("id") Long id, @Param("name") String name, @Param("species") String species);
+}
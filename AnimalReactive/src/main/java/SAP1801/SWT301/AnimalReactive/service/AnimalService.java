@@ -0,0 +1,18 @@
+package SAP1801.SWT301.AnimalReactive.service;
+
+import SAP1801.SWT301.AnimalReactive.dto.AnimalDto;
+import SAP1801.SWT301.AnimalReactive.dto.AnimalPage;
+import SAP1801.SWT301.AnimalReactive.model.Animal;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface AnimalService {
+    Flux<Animal> getAllAnimals();
+    Mono<AnimalPage> getAnimalPage(Long after, int limit);
+    Mono<Animal> getAnimalById(Long id);
+    Mono<Animal> createAnimal(AnimalDto animalDto);
+    Mono<Void> deleteAnimal(Long id);
+    Flux<Animal> getAnimalBySpecies(String species);
+    Mono<AnimalPage> getAnimalPageBySpecies(String species, Long after, int limit);
+    Mono<Animal> updateAnimal(Long id, AnimalDto animalDto);
+}
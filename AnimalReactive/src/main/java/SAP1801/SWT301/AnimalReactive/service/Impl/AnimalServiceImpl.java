@@ -0,0 +1,99 @@
+package SAP1801.SWT301.AnimalReactive.service.Impl;
+
+import SAP1801.SWT301.AnimalReactive.dto.AnimalDto;
+import SAP1801.SWT301.AnimalReactive.dto.AnimalPage;
+import SAP1801.SWT301.AnimalReactive.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalReactive.model.Animal;
+import SAP1801.SWT301.AnimalReactive.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalReactive.service.AnimalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Service
+public class AnimalServiceImpl implements AnimalService {
+    static final String NOT_FOUND_MESSAGE = "Cannot found animal from the id";
+    static final int MAX_PAGE_SIZE = 1000;
+    // Rows requested from the database cursor at a time; demand beyond this waits for the client
+    static final int STREAM_PREFETCH = 256;
+
+    private final AnimalRepository animalRepository;
+
+    @Autowired
+    public AnimalServiceImpl(AnimalRepository animalRepository) {
+        this.animalRepository = animalRepository;
+    }
+
+    @Override
+    public Flux<Animal> getAllAnimals() {
+        return animalRepository.findAll().limitRate(STREAM_PREFETCH);
+    }
+
+    @Override
+    public Mono<AnimalPage> getAnimalPage(Long after, int limit) {
+        int pageSize = clampPageSize(limit);
+        return toPage(animalRepository.findByIdGreaterThanOrderByIdAsc(cursorOf(after), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Override
+    public Mono<Animal> getAnimalById(Long id) {
+        return animalRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new AnimalNotFoundException(NOT_FOUND_MESSAGE)));
+    }
+
+    @Override
+    public Mono<Animal> createAnimal(AnimalDto animalDto) {
+        Animal animal = new Animal();
+        animal.setName(animalDto.getName());
+        animal.setSpecies(animalDto.getSpecies());
+        return animalRepository.save(animal);
+    }
+
+    @Override
+    public Mono<Void> deleteAnimal(Long id) {
+        return animalRepository.deleteAnimalById(id)
+                .flatMap(deleted -> deleted == 0 ? Mono.error(new AnimalNotFoundException(NOT_FOUND_MESSAGE)) : Mono.empty());
+    }
+
+    @Override
+    public Flux<Animal> getAnimalBySpecies(String species) {
+        return animalRepository.findBySpecies(species).limitRate(STREAM_PREFETCH);
+    }
+
+    @Override
+    public Mono<AnimalPage> getAnimalPageBySpecies(String species, Long after, int limit) {
+        int pageSize = clampPageSize(limit);
+        return toPage(animalRepository.findBySpeciesAndIdGreaterThanOrderByIdAsc(species, cursorOf(after), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Override
+    public Mono<Animal> updateAnimal(Long id, AnimalDto animalDto) {
+        return animalRepository.updateAnimalById(id, animalDto.getName(), animalDto.getSpecies())
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new AnimalNotFoundException(NOT_FOUND_MESSAGE))
+                        : Mono.just(new Animal(id, animalDto.getName(), animalDto.getSpecies())));
+    }
+
+    private static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static long cursorOf(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // One extra row is fetched to know whether another page exists without a count query.
+    private static Mono<AnimalPage> toPage(Flux<Animal> rows, int pageSize) {
+        return rows.collectList().map(animals -> {
+            if (animals.size() <= pageSize) {
+                return new AnimalPage(animals, null);
+            }
+            List<Animal> content = animals.subList(0, pageSize);
+            return new AnimalPage(List.copyOf(content), content.getLast().getId());
+        });
+    }
+}
@@ -0,0 +1,6 @@
+create table if not exists animal (
+    id bigint auto_increment primary key,
+    name varchar(255) not null,
+    species varchar(255) not null
+);
+create index if not exists idx_animal_species_id on animal (species, id);
@@ -0,0 +1,13 @@
+package SAP1801.SWT301.AnimalReactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class AnimalReactiveApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
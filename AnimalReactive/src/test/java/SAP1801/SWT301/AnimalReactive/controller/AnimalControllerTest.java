@@ -0,0 +1,114 @@
+package SAP1801.SWT301.AnimalReactive.controller;
+
+import SAP1801.SWT301.AnimalReactive.dto.AnimalDto;
+import SAP1801.SWT301.AnimalReactive.dto.AnimalPage;
+import SAP1801.SWT301.AnimalReactive.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalReactive.model.Animal;
+import SAP1801.SWT301.AnimalReactive.service.AnimalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(controllers = AnimalController.class)
+class AnimalControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private AnimalService animalService;
+
+    private Animal elephant;
+    private Animal lion;
+    private Animal lioness;
+
+    @BeforeEach
+    public void setUp() {
+        elephant = new Animal(1L, "Elephant", "Loxodonta");
+        lion = new Animal(2L, "Lion", "Panthera leo");
+        lioness = new Animal(3L, "Lioness", "Panthera leo");
+    }
+
+    @Test
+    public void AnimalController_CreateAnimal_ReturnAnimal() {
+        //Arrange
+        when(animalService.createAnimal(any())).thenReturn(Mono.just(elephant));
+
+        //Act & Assert
+        webTestClient.post().uri("/animals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AnimalDto("Elephant", "Loxodonta"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.name").isEqualTo(elephant.getName());
+    }
+
+    @Test
+    public void AnimalController_GetAllAnimals_ReturnAnimalList() {
+        //Arrange
+        when(animalService.getAllAnimals()).thenReturn(Flux.just(elephant, lion));
+
+        //Act & Assert
+        webTestClient.get().uri("/animals")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].name").isEqualTo(lion.getName());
+    }
+
+    @Test
+    public void AnimalController_GetAllAnimals_ReturnNdjsonStream() {
+        //Arrange
+        when(animalService.getAllAnimals()).thenReturn(Flux.just(elephant, lion));
+
+        //Act & Assert
+        webTestClient.get().uri("/animals")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Animal.class).isEqualTo(List.of(elephant, lion));
+    }
+
+    @Test
+    public void AnimalController_GetAnimalPageBySpecies_ReturnAnimalPage() {
+        //Arrange
+        when(animalService.getAnimalPageBySpecies("Panthera leo", 1L, 2))
+                .thenReturn(Mono.just(new AnimalPage(List.of(lion, lioness), lioness.getId())));
+
+        //Act & Assert
+        webTestClient.get().uri("/animals/species/Panthera leo?after=1&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEqualTo(3);
+    }
+
+    @Test
+    public void AnimalController_DeleteAnimal_ReturnNotFound() {
+        //Arrange
+        when(animalService.deleteAnimal(100L)).thenReturn(Mono.error(new AnimalNotFoundException("Animal not found with ID: 100")));
+
+        //Act & Assert
+        webTestClient.delete().uri("/animals/100")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Animal not found with ID: 100");
+        verify(animalService).deleteAnimal(100L);
+    }
+}
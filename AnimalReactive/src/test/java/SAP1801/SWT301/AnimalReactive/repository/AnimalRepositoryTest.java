@@ -0,0 +1,76 @@
+package SAP1801.SWT301.AnimalReactive.repository;
+
+import SAP1801.SWT301.AnimalReactive.model.Animal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.data.domain.Limit;
+import reactor.test.StepVerifier;
+
+
+@DataR2dbcTest
+class AnimalRepositoryTest {
+    private final AnimalRepository animalRepository;
+
+    @Autowired
+    public AnimalRepositoryTest(AnimalRepository animalRepository) {
+        this.animalRepository = animalRepository;
+    }
+
+    @BeforeEach
+    void setUp() {
+        animalRepository.deleteAll().block();
+    }
+
+    @Test
+    void AnimalRepository_SaveAnimal_ReturnAnimal() {
+        //Act & Assert
+        StepVerifier.create(animalRepository.save(new Animal(null, "Lion", "Panthera leo")))
+                .expectNextMatches(animal -> animal.getId() != null)
+                .verifyComplete();
+    }
+
+    @Test
+    void AnimalRepository_FindBySpecies_ReturnAnimalFlux() {
+        //Arrange
+        animalRepository.save(new Animal(null, "Tiger", "Panthera tigris")).block();
+        animalRepository.save(new Animal(null, "Tiger2", "Panthera tigris")).block();
+        animalRepository.save(new Animal(null, "Lion", "Panthera leo")).block();
+
+        //Act & Assert
+        StepVerifier.create(animalRepository.findBySpecies("Panthera tigris"))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void AnimalRepository_FindByIdGreaterThan_ReturnOrderedAnimalFlux() {
+        //Arrange
+        Animal first = animalRepository.save(new Animal(null, "Elephant", "Loxodonta")).block();
+        Animal second = animalRepository.save(new Animal(null, "Lion", "Panthera leo")).block();
+        animalRepository.save(new Animal(null, "Tiger", "Panthera tigris")).block();
+
+        //Act & Assert
+        StepVerifier.create(animalRepository.findByIdGreaterThanOrderByIdAsc(first.getId(), Limit.of(1)))
+                .expectNextMatches(animal -> animal.getId().equals(second.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void AnimalRepository_UpdateAndDeleteAnimalById_ReturnAffectedRows() {
+        //Arrange
+        Animal animal = animalRepository.save(new Animal(null, "Wolf", "Canis lupus")).block();
+
+        //Act & Assert
+        StepVerifier.create(animalRepository.updateAnimalById(animal.getId(), "Grey Wolf", "Canis lupus"))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(animalRepository.deleteAnimalById(animal.getId()))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(animalRepository.deleteAnimalById(animal.getId()))
+                .expectNext(0)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,132 @@
+package SAP1801.SWT301.AnimalReactive.service;
+
+import SAP1801.SWT301.AnimalReactive.dto.AnimalDto;
+import SAP1801.SWT301.AnimalReactive.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalReactive.model.Animal;
+import SAP1801.SWT301.AnimalReactive.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalReactive.service.Impl.AnimalServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+
+@ExtendWith(MockitoExtension.class)
+class AnimalServiceTest {
+    @Mock
+    private AnimalRepository animalRepository;
+
+    @InjectMocks
+    private AnimalServiceImpl animalService;
+
+    private Animal elephant;
+    private Animal lion;
+    private Animal tiger;
+    private Animal tiger2;
+
+    @BeforeEach
+    void setUp() {
+        elephant = new Animal(1L, "Elephant", "Loxodonta");
+        lion = new Animal(3L, "Lion", "Panthera leo");
+        tiger = new Animal(4L, "Tiger", "Panthera tigris");
+        tiger2 = new Animal(5L, "Tiger2", "Panthera tigris");
+    }
+
+    @Test
+    void AnimalService_CreateAnimal_ReturnAnimal() {
+        //Arrange
+        AnimalDto animalDto = new AnimalDto("Elephant", "Loxodonta");
+        when(animalRepository.save(any(Animal.class))).thenReturn(Mono.just(elephant));
+
+        //Act & Assert
+        StepVerifier.create(animalService.createAnimal(animalDto))
+                .expectNext(elephant)
+                .verifyComplete();
+        verify(animalRepository, times(1)).save(any(Animal.class));
+    }
+
+    @Test
+    void AnimalService_GetAllAnimals_ReturnAnimalFlux() {
+        //Arrange
+        when(animalRepository.findAll()).thenReturn(Flux.just(lion, tiger));
+
+        //Act & Assert
+        StepVerifier.create(animalService.getAllAnimals())
+                .expectNext(lion, tiger)
+                .verifyComplete();
+    }
+
+    @Test
+    void AnimalService_GetAllAnimals_HonourDownstreamDemand() {
+        //Arrange
+        when(animalRepository.findAll()).thenReturn(Flux.range(1, 1000).map(i -> new Animal((long) i, "Animal " + i, "Species")));
+
+        //Act & Assert
+        StepVerifier.create(animalService.getAllAnimals(), 0)
+                .thenRequest(2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void AnimalService_GetAnimalById_ThrowAnimalNotFoundException() {
+        //Arrange
+        when(animalRepository.findById(4L)).thenReturn(Mono.empty());
+
+        //Act & Assert
+        StepVerifier.create(animalService.getAnimalById(4L))
+                .expectErrorMatches(e -> e instanceof AnimalNotFoundException
+                        && e.getMessage().equals("Cannot found animal from the id"))
+                .verify();
+    }
+
+    @Test
+    void AnimalService_GetAnimalPageBySpecies_ReturnPageWithNextCursor() {
+        //Arrange
+        String species = "Panthera tigris";
+        when(animalRepository.findBySpeciesAndIdGreaterThanOrderByIdAsc(species, 0L, Limit.of(2)))
+                .thenReturn(Flux.just(tiger, tiger2));
+
+        //Act & Assert
+        StepVerifier.create(animalService.getAnimalPageBySpecies(species, null, 1))
+                .expectNextMatches(page -> page.getContent().equals(List.of(tiger)) && page.getNextCursor().equals(tiger.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void AnimalService_DeleteAnimal_ThrowAnimalNotFoundException() {
+        //Arrange
+        when(animalRepository.deleteAnimalById(100L)).thenReturn(Mono.just(0));
+
+        //Act & Assert
+        StepVerifier.create(animalService.deleteAnimal(100L))
+                .expectError(AnimalNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void AnimalService_UpdateAnimal_ReturnAnimal() {
+        //Arrange
+        AnimalDto animalDto = new AnimalDto("Updated Lion", "Updated Panthera leo");
+        when(animalRepository.updateAnimalById(3L, animalDto.getName(), animalDto.getSpecies())).thenReturn(Mono.just(1));
+
+        //Act & Assert
+        StepVerifier.create(animalService.updateAnimal(3L, animalDto))
+                .expectNext(new Animal(3L, animalDto.getName(), animalDto.getSpecies()))
+                .verifyComplete();
+    }
+}
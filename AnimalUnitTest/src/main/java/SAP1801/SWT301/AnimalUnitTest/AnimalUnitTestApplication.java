@@ -2,12 +2,17 @@ package SAP1801.SWT301.AnimalUnitTest;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class AnimalUnitTestApplication {
+	// Enough for every startup step of this application; the timeline is served at /actuator/startup
+	private static final int STARTUP_STEPS = 4096;
 
 	public static void main(String[] args) {
-		SpringApplication.run(AnimalUnitTestApplication.class, args);
+		SpringApplication application = new SpringApplication(AnimalUnitTestApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 
 }
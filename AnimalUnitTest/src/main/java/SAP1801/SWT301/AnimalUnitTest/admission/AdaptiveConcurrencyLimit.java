@@ -0,0 +1,84 @@
+package SAP1801.SWT301.AnimalUnitTest.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows observed latency, after the gradient algorithm of Netflix's
+ * concurrency-limits. Every completed request compares its latency with a long-term average:
+ * while they are close the limit grows by a small allowance, and once requests take more than
+ * {@code tolerance} times the average the limit shrinks in proportion, down to half per step.
+ * Requests beyond the limit are refused rather than queued, so the latency of admitted requests
+ * stays near what the database can sustain.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double SMOOTHING = 0.2;
+    private static final int WARMUP_SAMPLES = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    // Guarded by this
+    private double longLatency;
+    private long samples;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Ends an admitted request and feeds its latency into the limit.
+     */
+    public void release(long latencyNanos) {
+        int inflightBefore = inflight.getAndDecrement();
+        onSample(Math.max(1, latencyNanos), inflightBefore);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private synchronized void onSample(long latency, int inflightBefore) {
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            longLatency += (latency - longLatency) / samples;
+        } else {
+            longLatency += (latency - longLatency) * 2 / (LONG_WINDOW + 1);
+        }
+        // A lightly used limit says nothing about what the database can take, so it is left alone
+        if (inflightBefore < limit / 2) {
+            return;
+        }
+        // After a long slowdown the average lags behind; pull it toward the present so the limit recovers
+        if (longLatency / latency > 2) {
+            longLatency *= 0.95;
+        }
+        double gradient = Math.clamp(tolerance * longLatency / latency, 0.5, 1.0);
+        double queueAllowance = Math.sqrt(limit);
+        double next = limit * gradient + queueAllowance;
+        limit = Math.clamp(limit * (1 - SMOOTHING) + next * SMOOTHING, minLimit, maxLimit);
+    }
+}
@@ -0,0 +1,23 @@
+package SAP1801.SWT301.AnimalUnitTest.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method under the concurrency limit of its cost class. Handlers without it, such
+ * as the long-lived export and change streams, are not limited.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+    Cost value();
+
+    enum Cost {
+        /** Single rows, keyset pages and in-memory lookups */
+        CHEAP,
+        /** Unbounded lists and multi-row writes */
+        EXPENSIVE
+    }
+}
@@ -0,0 +1,88 @@
+package SAP1801.SWT301.AnimalUnitTest.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Admits requests to {@link Admission}-annotated handlers while their cost class is under its
+ * {@link AdaptiveConcurrencyLimit}, and answers the rest at once with 503 and {@code Retry-After}.
+ * Outcomes are counted as {@code animal.admission.requests} tagged with the class and
+ * {@code admitted} or {@code rejected}; the current limits and in-flight counts are the
+ * {@code animal.admission.limit} and {@code animal.admission.inflight} gauges.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    static final String ADMITTED_AT = AdmissionControlInterceptor.class.getName() + ".admittedAt";
+
+    private final Map<Admission.Cost, AdaptiveConcurrencyLimit> limits;
+    private final Map<Admission.Cost, Counter> admitted = new EnumMap<>(Admission.Cost.class);
+    private final Map<Admission.Cost, Counter> rejected = new EnumMap<>(Admission.Cost.class);
+    private final String retryAfter;
+
+    public AdmissionControlInterceptor(Map<Admission.Cost, AdaptiveConcurrencyLimit> limits, Duration retryAfter,
+                                       MeterRegistry meterRegistry) {
+        this.limits = new EnumMap<>(limits);
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.limits.forEach((cost, limit) -> {
+            String name = cost.name().toLowerCase(Locale.ROOT);
+            admitted.put(cost, Counter.builder("animal.admission.requests").tag("class", name).tag("outcome", "admitted")
+                    .description("Requests let through or refused by admission control").register(meterRegistry));
+            rejected.put(cost, Counter.builder("animal.admission.requests").tag("class", name).tag("outcome", "rejected")
+                    .description("Requests let through or refused by admission control").register(meterRegistry));
+            Gauge.builder("animal.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit).tag("class", name)
+                    .description("Current concurrency limit").register(meterRegistry);
+            Gauge.builder("animal.admission.inflight", limit, AdaptiveConcurrencyLimit::getInflight).tag("class", name)
+                    .description("Admitted requests still being handled").register(meterRegistry);
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        Admission.Cost cost = costOf(handler);
+        if (cost == null) {
+            return true;
+        }
+        if (!limits.get(cost).tryAcquire()) {
+            rejected.get(cost).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many concurrent requests, retry later");
+            return false;
+        }
+        admitted.get(cost).increment();
+        request.setAttribute(ADMITTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED_AT) instanceof Long admittedAt) {
+            request.removeAttribute(ADMITTED_AT);
+            limits.get(costOf(handler)).release(System.nanoTime() - admittedAt);
+        }
+    }
+
+    private Admission.Cost costOf(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Admission admission = handlerMethod.getMethodAnnotation(Admission.class);
+            if (admission != null && limits.containsKey(admission.value())) {
+                return admission.value();
+            }
+        }
+        return null;
+    }
+}
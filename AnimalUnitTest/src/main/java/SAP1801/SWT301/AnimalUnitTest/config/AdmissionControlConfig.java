@@ -0,0 +1,51 @@
+package SAP1801.SWT301.AnimalUnitTest.config;
+
+import SAP1801.SWT301.AnimalUnitTest.admission.AdaptiveConcurrencyLimit;
+import SAP1801.SWT301.AnimalUnitTest.admission.Admission;
+import SAP1801.SWT301.AnimalUnitTest.admission.AdmissionControlInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Separate adaptive concurrency limits for cheap and expensive animal endpoints, so a burst of
+ * full-table reads cannot take the capacity that single-row lookups need. The cheap limit starts at
+ * the Tomcat worker count, which is what the server already sustains, and adapts from there.
+ */
+@Configuration
+@ConditionalOnProperty(name = "animal.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdmissionControlInterceptor admissionControlInterceptor(
+            @Value("${animal.admission.cheap.initial-limit:${server.tomcat.threads.max:200}}") int cheapInitialLimit,
+            @Value("${animal.admission.cheap.max-limit:500}") int cheapMaxLimit,
+            @Value("${animal.admission.expensive.initial-limit:8}") int expensiveInitialLimit,
+            @Value("${animal.admission.expensive.max-limit:64}") int expensiveMaxLimit,
+            @Value("${animal.admission.min-limit:2}") int minLimit,
+            @Value("${animal.admission.tolerance:2.0}") double tolerance,
+            @Value("${animal.admission.retry-after:PT1S}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        return new AdmissionControlInterceptor(Map.of(
+                Admission.Cost.CHEAP, new AdaptiveConcurrencyLimit(cheapInitialLimit, minLimit, cheapMaxLimit, tolerance),
+                Admission.Cost.EXPENSIVE, new AdaptiveConcurrencyLimit(expensiveInitialLimit, minLimit, expensiveMaxLimit, tolerance)),
+                retryAfter, meterRegistry);
+    }
+
+    @Bean
+    public WebMvcConfigurer admissionControlWebMvcConfigurer(AdmissionControlInterceptor admissionControlInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(admissionControlInterceptor).addPathPatterns("/animals/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package SAP1801.SWT301.AnimalUnitTest.config;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+/**
+ * The {@link CacheConfig#ANIMAL_CACHE} cache. A lookup that missed can read a row, lose the race to
+ * an update or delete of that animal, and only then put what it read. Caffeine alone would keep that
+ * row until it expires. Here a put never replaces an animal with one of a lower version, and an id
+ * evicted by a delete is not cached again until the eviction itself would have expired.
+ */
+class AnimalCache extends CaffeineCache {
+    // Ids are never reused, so nothing read after a delete can legitimately be put back
+    private final Cache<Object, Boolean> deleted;
+
+    AnimalCache(String name, Cache<Object, Object> cache, Cache<Object, Boolean> deleted) {
+        super(name, cache);
+        this.deleted = deleted;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        Object storeValue = toStoreValue(value);
+        getNativeCache().asMap().compute(key, (id, cached) -> replaces(id, storeValue, cached) ? storeValue : cached);
+    }
+
+    @Override
+    public void evict(Object key) {
+        // Recorded before the entry goes, so a put racing with the delete either sees it or is removed
+        deleted.put(key, Boolean.TRUE);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        deleted.put(key, Boolean.TRUE);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        deleted.invalidateAll();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        deleted.invalidateAll();
+        return super.invalidate();
+    }
+
+    private boolean replaces(Object key, Object value, @Nullable Object cached) {
+        if (deleted.getIfPresent(key) != null) {
+            return false;
+        }
+        return !(cached instanceof Animal current && value instanceof Animal animal) || versionOf(animal) >= versionOf(current);
+    }
+
+    // A NULL version, as left by rows written outside the application, counts as version 0
+    private static long versionOf(Animal animal) {
+        return animal.getVersion() == null ? 0L : animal.getVersion();
+    }
+}
@@ -0,0 +1,67 @@
+package SAP1801.SWT301.AnimalUnitTest.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Enables the Caffeine-backed cache configured through {@code spring.cache.*}, and gives Hibernate's
+ * second-level and query caches a JCache manager of their own. Region sizes and expiry are set in
+ * {@code application.conf}.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+    public static final String ANIMAL_CACHE = "animals";
+    public static final String ANIMAL_REGION = "animal";
+    public static final String SPECIES_QUERY_REGION = "animal-species";
+
+    // Replaces the auto-configured manager only to make the animal cache an AnimalCache
+    @Bean
+    public org.springframework.cache.CacheManager cacheManager(CacheProperties cacheProperties) {
+        String specification = cacheProperties.getCaffeine().getSpec();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                if (!ANIMAL_CACHE.equals(name)) {
+                    return super.adaptCaffeineCache(name, cache);
+                }
+                // Deleted ids are remembered as long as, and as many as, cached animals
+                return new AnimalCache(name, cache, specification == null
+                        ? Caffeine.newBuilder().build() : Caffeine.from(specification).build());
+            }
+        };
+        if (specification != null) {
+            cacheManager.setCacheSpecification(specification);
+        }
+        cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return cacheManager;
+    }
+
+    // One manager per application context: managers are shared per URI within a JVM, and two contexts
+    // (as in the test suite) must not serve each other's cached rows
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
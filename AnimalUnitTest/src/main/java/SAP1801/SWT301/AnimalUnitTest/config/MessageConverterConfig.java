@@ -0,0 +1,22 @@
+package SAP1801.SWT301.AnimalUnitTest.config;
+
+import SAP1801.SWT301.AnimalUnitTest.converter.AnimalColumnarHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds the columnar animal list format next to JSON and CBOR (registered by Spring MVC because
+ * {@code jackson-dataformat-cbor} is on the classpath). It goes last so that requests without a
+ * specific {@code Accept} header keep getting JSON.
+ */
+@Configuration
+public class MessageConverterConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new AnimalColumnarHttpMessageConverter());
+    }
+}
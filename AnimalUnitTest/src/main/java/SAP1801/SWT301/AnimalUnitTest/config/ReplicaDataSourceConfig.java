@@ -0,0 +1,57 @@
+package SAP1801.SWT301.AnimalUnitTest.config;
+
+import SAP1801.SWT301.AnimalUnitTest.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Replaces the auto-configured DataSource with a primary and a replica pool when
+ * {@code animal.datasource.replica.url} is set. Everything that injects a {@link DataSource} gets
+ * the routing one; see {@link ReplicaRoutingDataSource} for which pool serves what.
+ */
+@Configuration
+@ConditionalOnProperty(name = "animal.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("animal.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${animal.datasource.replica.url}") String url,
+                                              @Value("${animal.datasource.replica.username:sa}") String username,
+                                              @Value("${animal.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 @Value("${animal.datasource.replica.max-lag:PT1S}") Duration maxLag,
+                                 @Value("${animal.datasource.replica.retry-after:PT10S}") Duration retryAfter) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, maxLag, retryAfter));
+    }
+}
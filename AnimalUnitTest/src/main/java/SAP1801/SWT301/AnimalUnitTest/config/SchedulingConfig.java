@@ -0,0 +1,12 @@
+package SAP1801.SWT301.AnimalUnitTest.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the species statistics reconciliation.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,22 @@
+package SAP1801.SWT301.AnimalUnitTest.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * With {@code spring.main.lazy-initialization} on, beans are created when first used instead of
+ * during startup. The connection pool and the entity manager factory are kept eager: every
+ * request needs them, and building them on the first request would only move the wait there.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class);
+    }
+}
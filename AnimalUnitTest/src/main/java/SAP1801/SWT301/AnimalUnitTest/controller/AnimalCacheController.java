@@ -0,0 +1,60 @@
+package SAP1801.SWT301.AnimalUnitTest.controller;
+
+import SAP1801.SWT301.AnimalUnitTest.config.CacheConfig;
+import SAP1801.SWT301.AnimalUnitTest.dto.CacheRegionStatsDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.CacheStatsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/animals/cache")
+public class AnimalCacheController {
+    private final CacheManager cacheManager;
+    private final Statistics hibernateStatistics;
+
+    @Autowired
+    public AnimalCacheController(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        this.cacheManager = cacheManager;
+        this.hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatsDto> getCacheStats() {
+        if (!(cacheManager.getCache(CacheConfig.ANIMAL_CACHE) instanceof CaffeineCache caffeineCache)) {
+            return ResponseEntity.notFound().build();
+        }
+        Cache<Object, Object> cache = caffeineCache.getNativeCache();
+        CacheStats stats = cache.stats();
+        return ResponseEntity.ok(new CacheStatsDto(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount()));
+    }
+
+    // Hibernate second-level regions: entities by id and cached query results
+    @GetMapping("/regions")
+    public ResponseEntity<List<CacheRegionStatsDto>> getRegionStats() {
+        List<CacheRegionStatsDto> regions = new ArrayList<>();
+        for (String region : List.of(CacheConfig.ANIMAL_REGION, CacheConfig.SPECIES_QUERY_REGION)) {
+            CacheRegionStatistics stats = hibernateStatistics.getCacheRegionStatistics(region);
+            if (stats != null) {
+                long requests = stats.getHitCount() + stats.getMissCount();
+                regions.add(new CacheRegionStatsDto(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                        requests == 0 ? 0.0 : (double) stats.getHitCount() / requests));
+            }
+        }
+        return ResponseEntity.ok(regions);
+    }
+}
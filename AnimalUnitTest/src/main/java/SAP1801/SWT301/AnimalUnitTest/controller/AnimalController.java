@@ -1,61 +1,308 @@
 package SAP1801.SWT301.AnimalUnitTest.controller;
 
+import SAP1801.SWT301.AnimalUnitTest.admission.Admission;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalChange;
 import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalImportResult;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalIngestStatus;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalSearchPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangeFeed;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalImportInProgressException;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalIngestRejectedException;
 import SAP1801.SWT301.AnimalUnitTest.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalVersionConflictException;
 import SAP1801.SWT301.AnimalUnitTest.model.Animal;
 import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalCsvImporter;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalIngestQueue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
+/**
+ * Single animals carry a strong ETag derived from their version column; {@code If-None-Match}
+ * is answered with 304 and {@code If-Match} on PUT makes the update conditional on that version.
+ * Collection responses carry a weak ETag derived from the change counter, checked before the rows
+ * are loaded. The counter only sees this instance's writes, so collection ETags are only sent while
+ * {@code animal.collection-etag.enabled} is on, which assumes this instance is the only writer.
+ * <p>
+ * Bodies are negotiated through {@code Accept}: JSON by default, {@code application/cbor}, and
+ * for {@code List<Animal>} responses the columnar {@code application/vnd.animal.columnar}.
+ * <p>
+ * Handlers marked with {@link Admission} are answered with 503 and {@code Retry-After} once their
+ * cost class is at its concurrency limit.
+ */
 @RestController
 @RequestMapping("/animals")
 public class AnimalController {
     private final AnimalService animalService;
+    private final AnimalCsvImporter csvImporter;
+    private final AnimalIngestQueue ingestQueue;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public AnimalController(AnimalService animalService) {
+    public AnimalController(AnimalService animalService, AnimalCsvImporter csvImporter, AnimalIngestQueue ingestQueue,
+                            ObjectMapper objectMapper) {
         this.animalService = animalService;
+        this.csvImporter = csvImporter;
+        this.ingestQueue = ingestQueue;
+        this.objectMapper = objectMapper;
     }
 
+    @Admission(Admission.Cost.EXPENSIVE)
     @GetMapping
-    public ResponseEntity<List<Animal>> getAllAnimals() {
-        return ResponseEntity.ok(animalService.getAllAnimals());
+    public ResponseEntity<List<Animal>> getAllAnimals(WebRequest webRequest) {
+        return withCollectionETag(webRequest, animalService::getAllAnimals);
+    }
+
+    @Admission(Admission.Cost.EXPENSIVE)
+    // With both ids and limit the request is a keyset page; without the exclusion it would match both mappings
+    @GetMapping(params = {"ids", "!limit"})
+    public ResponseEntity<List<Animal>> getAnimalsByIds(@RequestParam List<Long> ids, WebRequest webRequest) {
+        return withCollectionETag(webRequest, () -> animalService.getAnimalsByIds(ids));
     }
 
+    @Admission(Admission.Cost.CHEAP)
+    @GetMapping(params = "limit")
+    public ResponseEntity<AnimalPage> getAnimalPage(@RequestParam(required = false) Long after, @RequestParam int limit,
+                                                    WebRequest webRequest) {
+        return withCollectionETag(webRequest, () -> animalService.getAnimalPage(after, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAnimals() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                animalService.exportAnimals(animal -> {
+                    try {
+                        generator.writeObject(animal);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Clients resume after a reconnect by sending back the id of the last event they received
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        AnimalChangeFeed.Subscription subscription = animalService.subscribeToChanges(lastEventId, new SseChangeSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    @Admission(Admission.Cost.CHEAP)
     @GetMapping("/{id}")
     public ResponseEntity<Animal> getAnimalById(@PathVariable Long id) {
-        return ResponseEntity.ok(animalService.getAnimalById(id));
+        // A matching If-None-Match is turned into a 304 without writing the body
+        return withETag(HttpStatus.OK, animalService.getAnimalById(id));
     }
 
+    @Admission(Admission.Cost.CHEAP)
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<Animal> createAnimal(@RequestBody AnimalDto animalDto) {
-        return new ResponseEntity<>(animalService.createAnimal(animalDto), HttpStatus.CREATED);
+        return withETag(HttpStatus.CREATED, animalService.createAnimal(animalDto));
+    }
+
+    // Opt-in write-behind creation: the body is queued and the returned token can be polled for the id
+    @Admission(Admission.Cost.CHEAP)
+    @PostMapping(params = "async=true")
+    public ResponseEntity<AnimalIngestStatus> submitAnimal(@RequestBody AnimalDto animalDto) {
+        AnimalIngestStatus status = ingestQueue.submit(animalDto);
+        return ResponseEntity.accepted().location(URI.create("/animals/ingest/" + status.getToken())).body(status);
     }
 
+    @Admission(Admission.Cost.CHEAP)
+    @GetMapping("/ingest/{token}")
+    public ResponseEntity<AnimalIngestStatus> getIngestStatus(@PathVariable String token) {
+        return ResponseEntity.of(ingestQueue.status(token));
+    }
+
+    @Admission(Admission.Cost.EXPENSIVE)
+    @PostMapping("/batch")
+    public ResponseEntity<AnimalBatchResult> createAnimals(@RequestBody List<AnimalDto> animalDtos) {
+        AnimalBatchResult result = animalService.createAnimals(animalDtos);
+        HttpStatus status;
+        if (result.getErrors().isEmpty()) {
+            status = HttpStatus.CREATED;
+        } else if (result.getCreated().isEmpty()) {
+            status = HttpStatus.BAD_REQUEST;
+        } else {
+            status = HttpStatus.MULTI_STATUS;
+        }
+        return new ResponseEntity<>(result, status);
+    }
+
+    // Loads a CSV file from the server's import directory; the file name is resolved inside that directory only.
+    // Not transactional: each batch of the import commits on its own
+    @PostMapping(value = "/import", params = "file")
+    public ResponseEntity<AnimalImportResult> importAnimals(@RequestParam String file) {
+        return ResponseEntity.ok(csvImporter.importFile(file));
+    }
+
+    @Admission(Admission.Cost.CHEAP)
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteAnimal(@PathVariable Long id) {
         animalService.deleteAnimal(id);
         return new ResponseEntity<>("Animal deleted", HttpStatus.OK);
     }
 
+    @Admission(Admission.Cost.CHEAP)
+    @GetMapping("/search")
+    public ResponseEntity<AnimalSearchPage> searchAnimals(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "0") int offset,
+                                                          @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(animalService.searchAnimals(q, offset, limit));
+    }
+
+    // Takes precedence over /species/{species}, so a species literally named "stats" is not addressable here
+    @Admission(Admission.Cost.CHEAP)
+    @GetMapping("/species/stats")
+    public ResponseEntity<List<SpeciesCount>> getSpeciesStats() {
+        return ResponseEntity.ok(animalService.getSpeciesStats());
+    }
+
+    @Admission(Admission.Cost.EXPENSIVE)
     @GetMapping("/species/{species}")
-    public ResponseEntity<List<Animal>> getAnimalBySpecies(@PathVariable String species) {
-        return ResponseEntity.ok(animalService.getAnimalBySpecies(species));
+    public ResponseEntity<List<Animal>> getAnimalBySpecies(@PathVariable String species,
+                                                           @RequestParam(defaultValue = "false") boolean ignoreCase,
+                                                           WebRequest webRequest) {
+        return withCollectionETag(webRequest, () -> ignoreCase
+                ? animalService.getAnimalBySpeciesIgnoreCase(species)
+                : animalService.getAnimalBySpecies(species));
     }
 
+    @Admission(Admission.Cost.CHEAP)
+    @GetMapping(value = "/species/{species}", params = "limit")
+    public ResponseEntity<AnimalPage> getAnimalPageBySpecies(@PathVariable String species,
+                                                             @RequestParam(required = false) Long after,
+                                                             @RequestParam int limit,
+                                                             WebRequest webRequest) {
+        return withCollectionETag(webRequest, () -> animalService.getAnimalPageBySpecies(species, after, limit));
+    }
+
+    @Admission(Admission.Cost.CHEAP)
     @PutMapping("/{id}")
-    public ResponseEntity<Animal> updateAnimal(@PathVariable Long id, @RequestBody AnimalDto animalDto) {
-        return ResponseEntity.ok(animalService.updateAnimal(id, animalDto));
+    public ResponseEntity<Animal> updateAnimal(@PathVariable Long id, @RequestBody AnimalDto animalDto,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = versionOf(ifMatch);
+        if (expectedVersion == null) {
+            return withETag(HttpStatus.OK, animalService.updateAnimal(id, animalDto));
+        }
+        return withETag(HttpStatus.OK, animalService.updateAnimal(id, animalDto, expectedVersion));
     }
 
     @ExceptionHandler(AnimalNotFoundException.class)
     public ResponseEntity<String> handleNotFound(AnimalNotFoundException e) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
+
+    @ExceptionHandler(AnimalVersionConflictException.class)
+    public ResponseEntity<String> handleVersionConflict(AnimalVersionConflictException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+    @ExceptionHandler(AnimalIngestRejectedException.class)
+    public ResponseEntity<String> handleIngestRejected(AnimalIngestRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(e.getMessage());
+    }
+
+    @ExceptionHandler(AnimalImportInProgressException.class)
+    public ResponseEntity<String> handleImportInProgress(AnimalImportInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    // The tag is read before the rows are loaded: a change committed in between can only leave
+    // the tag older than the data, which costs a re-download but never serves stale rows as current.
+    // It is weak because it names the data, not the bytes: the same rows go out as JSON, CBOR or
+    // columnar, gzipped or not (Tomcat also refuses to compress a response with a strong tag).
+    private <T> ResponseEntity<T> withCollectionETag(WebRequest webRequest, Supplier<T> body) {
+        Optional<String> tag = animalService.getCollectionTag();
+        if (tag.isEmpty()) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(body.get());
+        }
+        String eTag = "W/\"" + tag.get() + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(body.get());
+    }
+
+    private static ResponseEntity<Animal> withETag(HttpStatus status, Animal animal) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).varyBy(HttpHeaders.ACCEPT);
+        if (animal.getVersion() != null) {
+            builder.eTag("\"" + animal.getVersion() + "\"");
+        }
+        return builder.body(animal);
+    }
+
+    // If-Match needs a strong comparison, so weak or malformed tags can never match
+    private static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new AnimalVersionConflictException("If-Match does not match the current version");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new AnimalVersionConflictException("If-Match does not match the current version");
+        }
+    }
+
+    private record SseChangeSink(SseEmitter emitter) implements AnimalChangeFeed.Sink {
+        @Override
+        public void send(AnimalChange change) throws IOException {
+            emitter.send(SseEmitter.event().id(change.getEventId()).name(change.getType()).data(change, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void reset() throws IOException {
+            emitter.send(SseEmitter.event().name("reset").data("Reload the collection; earlier changes are no longer available"));
+        }
+
+        @Override
+        public void keepAlive() throws IOException {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
 }
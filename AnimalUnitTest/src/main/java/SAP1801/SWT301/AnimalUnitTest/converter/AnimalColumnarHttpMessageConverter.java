@@ -0,0 +1,295 @@
+package SAP1801.SWT301.AnimalUnitTest.converter;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Length-prefixed columnar encoding of {@code List<Animal>} for service-to-service calls, served as
+ * {@value #MEDIA_TYPE_VALUE}. All numbers are unsigned LEB128 varints:
+ * <pre>
+ * magic "ANC1", row count
+ * ids        zigzag delta from the previous id (ids of a list page are ascending, so mostly one byte)
+ * versions   version + 1, 0 for none
+ * names      UTF-8 byte length + 1 (0 for null) followed by the bytes
+ * species    dictionary size, dictionary entries encoded like names, then one dictionary index per row
+ * </pre>
+ * Keeping each column together puts similar bytes next to each other, which also helps gzip.
+ */
+public class AnimalColumnarHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<Animal>> {
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.animal.columnar";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final byte[] MAGIC = {'A', 'N', 'C', '1'};
+
+    public AnimalColumnarHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    public static byte[] encode(List<Animal> animals) {
+        Encoder encoder = new Encoder(16 + animals.size() * 24);
+        encoder.bytes(MAGIC);
+        encoder.varint(animals.size());
+        long previousId = 0;
+        for (Animal animal : animals) {
+            if (animal.getId() == null) {
+                throw new IllegalArgumentException("Only persisted animals can be encoded");
+            }
+            long delta = animal.getId() - previousId;
+            encoder.varint(delta << 1 ^ delta >> 63);
+            previousId = animal.getId();
+        }
+        for (Animal animal : animals) {
+            encoder.varint(animal.getVersion() == null ? 0 : animal.getVersion() + 1);
+        }
+        for (Animal animal : animals) {
+            encoder.string(animal.getName());
+        }
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] indexes = new int[animals.size()];
+        int nullIndex = -1;
+        for (int i = 0; i < indexes.length; i++) {
+            String species = animals.get(i).getSpecies();
+            if (species == null) {
+                if (nullIndex < 0) {
+                    nullIndex = entries.size();
+                    entries.add(null);
+                }
+                indexes[i] = nullIndex;
+            } else {
+                indexes[i] = dictionary.computeIfAbsent(species, key -> {
+                    entries.add(key);
+                    return entries.size() - 1;
+                });
+            }
+        }
+        encoder.varint(entries.size());
+        for (String entry : entries) {
+            encoder.string(entry);
+        }
+        for (int index : indexes) {
+            encoder.varint(index);
+        }
+        return encoder.toByteArray();
+    }
+
+    public static List<Animal> decode(byte[] data) {
+        try {
+            return decode(new Decoder(data));
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Payload ends in the middle of a column", e);
+        }
+    }
+
+    private static List<Animal> decode(Decoder decoder) {
+        if (!Arrays.equals(decoder.bytes(MAGIC.length), MAGIC)) {
+            throw new IllegalArgumentException("Not an animal columnar payload");
+        }
+        int rows = decoder.count();
+        List<Animal> animals = new ArrayList<>(rows);
+        long id = 0;
+        for (int i = 0; i < rows; i++) {
+            long zigzag = decoder.varint();
+            id += zigzag >>> 1 ^ -(zigzag & 1);
+            Animal animal = new Animal();
+            animal.setId(id);
+            animals.add(animal);
+        }
+        for (Animal animal : animals) {
+            long version = decoder.varint();
+            animal.setVersion(version == 0 ? null : version - 1);
+        }
+        for (Animal animal : animals) {
+            animal.setName(decoder.string());
+        }
+        String[] entries = new String[decoder.count()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = decoder.string();
+        }
+        for (Animal animal : animals) {
+            long index = decoder.varint();
+            if (index < 0 || index >= entries.length) {
+                throw new IllegalArgumentException("Species index " + index + " is outside the dictionary");
+            }
+            animal.setSpecies(entries[(int) index]);
+        }
+        if (decoder.position != decoder.data.length) {
+            throw new IllegalArgumentException("Unexpected bytes after the last column");
+        }
+        return animals;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isAnimalList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isAnimalList(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public List<Animal> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(null, inputMessage);
+    }
+
+    @Override
+    protected List<Animal> readInternal(Class<? extends List<Animal>> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return decode(inputMessage.getBody().readAllBytes());
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Malformed animal columnar payload: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(List<Animal> animals, Type type, HttpOutputMessage outputMessage) throws IOException {
+        byte[] data;
+        try {
+            data = encode(animals);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotWritableException(e.getMessage(), e);
+        }
+        outputMessage.getHeaders().setContentLength(data.length);
+        OutputStream body = outputMessage.getBody();
+        body.write(data);
+        body.flush();
+    }
+
+    // Only List<Animal> is handled; other lists keep going to JSON or CBOR
+    private static boolean isAnimalList(Type type) {
+        if (type == null) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolved.toClass())
+                && resolved.asCollection().getGeneric(0).toClass() == Animal.class;
+    }
+
+    private static final class Encoder {
+        private byte[] buffer;
+        private int size;
+
+        Encoder(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            int length = value.length();
+            int ascii = 0;
+            while (ascii < length && value.charAt(ascii) < 0x80) {
+                ascii++;
+            }
+            if (ascii < length) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                varint(utf8.length + 1L);
+                bytes(utf8);
+                return;
+            }
+            // Names are nearly always ASCII, which is copied without an intermediate array
+            varint(length + 1L);
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                buffer[size++] = (byte) value.charAt(i);
+            }
+        }
+
+        void bytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(size + extra, buffer.length * 2));
+            }
+        }
+    }
+
+    private static final class Decoder {
+        private final byte[] data;
+        private int position;
+
+        Decoder(byte[] data) {
+            this.data = data;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint longer than 64 bits");
+        }
+
+        // Every counted item takes at least one byte, so a count larger than the rest of the
+        // payload is corrupt and must not be used to size an allocation
+        int count() {
+            long value = varint();
+            if (value < 0 || value > data.length - position + 1L) {
+                throw new IllegalArgumentException("Count " + value + " is out of range");
+            }
+            return (int) value;
+        }
+
+        String string() {
+            int length = count();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(data, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+
+        byte[] bytes(int length) {
+            byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return bytes;
+        }
+    }
+}
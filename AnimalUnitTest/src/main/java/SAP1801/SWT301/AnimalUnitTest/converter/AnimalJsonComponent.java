@@ -0,0 +1,133 @@
+package SAP1801.SWT301.AnimalUnitTest.converter;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Hand-written JSON mapping for the types on the hot request paths, registered with Spring's
+ * {@code ObjectMapper}. {@code Animal} and {@code AnimalDto} are written field by field with
+ * pre-encoded names instead of going through bean introspection, producing the same JSON as the
+ * default mapping (nulls included, {@code speciesKey} left out). {@code AnimalDto} bodies are read
+ * token by token; unknown properties follow {@code FAIL_ON_UNKNOWN_PROPERTIES} as before.
+ */
+@JsonComponent
+public class AnimalJsonComponent {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString SPECIES = new SerializedString("species");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    /**
+     * The same serializers for mappers built outside Spring, such as in benchmarks.
+     */
+    public static SimpleModule module() {
+        return new SimpleModule("AnimalJsonComponent")
+                .addSerializer(Animal.class, new AnimalSerializer())
+                .addSerializer(AnimalDto.class, new AnimalDtoSerializer())
+                .addDeserializer(AnimalDto.class, new AnimalDtoDeserializer());
+    }
+
+    public static class AnimalSerializer extends StdSerializer<Animal> {
+        public AnimalSerializer() {
+            super(Animal.class);
+        }
+
+        @Override
+        public void serialize(Animal animal, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(animal, 4);
+            writeNumber(generator, ID, animal.getId());
+            writeString(generator, NAME, animal.getName());
+            writeString(generator, SPECIES, animal.getSpecies());
+            writeNumber(generator, VERSION, animal.getVersion());
+            generator.writeEndObject();
+        }
+    }
+
+    public static class AnimalDtoSerializer extends StdSerializer<AnimalDto> {
+        public AnimalDtoSerializer() {
+            super(AnimalDto.class);
+        }
+
+        @Override
+        public void serialize(AnimalDto animalDto, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(animalDto, 2);
+            writeString(generator, NAME, animalDto.getName());
+            writeString(generator, SPECIES, animalDto.getSpecies());
+            generator.writeEndObject();
+        }
+    }
+
+    public static class AnimalDtoDeserializer extends StdDeserializer<AnimalDto> {
+        public AnimalDtoDeserializer() {
+            super(AnimalDto.class);
+        }
+
+        @Override
+        public AnimalDto deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+                return (AnimalDto) context.handleUnexpectedToken(AnimalDto.class, parser);
+            }
+            AnimalDto animalDto = new AnimalDto();
+            // Property names come from the parser's symbol table, so matching them allocates nothing
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String property = parser.currentName();
+                parser.nextToken();
+                switch (property) {
+                    case "name" -> animalDto.setName(readString(parser, context));
+                    case "species" -> animalDto.setSpecies(readString(parser, context));
+                    default -> context.handleUnknownProperty(parser, this, AnimalDto.class, property);
+                }
+            }
+            return animalDto;
+        }
+
+        // Scalars are coerced to text as the default String deserializer does; objects and arrays are rejected
+        private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                return parser.getText();
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token.isScalarValue()) {
+                return parser.getValueAsString();
+            }
+            return (String) context.handleUnexpectedToken(String.class, parser);
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, SerializableString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+}
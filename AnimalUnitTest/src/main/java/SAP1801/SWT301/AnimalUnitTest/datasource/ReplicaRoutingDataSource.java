@@ -0,0 +1,86 @@
+package SAP1801.SWT301.AnimalUnitTest.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else. The decision is made when the connection is requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager
+ * asks for a connection before the read-only flag of the new transaction is published.
+ * <p>
+ * Reads stay on the primary for {@code maxLag} after this process commits a write transaction, so a
+ * client sees its own changes as long as the replica is no further behind than that. Writes from other
+ * processes are not tracked. If the replica cannot hand out a connection, reads go to the primary for
+ * {@code retryAfter} before the replica is tried again.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagNanos;
+    private final long retryAfterNanos;
+    private volatile long lastWriteNanos;
+    private volatile long replicaDownUntilNanos;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagNanos = maxLag.toNanos();
+        this.retryAfterNanos = retryAfter.toNanos();
+        long now = System.nanoTime();
+        this.lastWriteNanos = now - maxLagNanos;
+        this.replicaDownUntilNanos = now;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaDownUntilNanos = System.nanoTime() + retryAfterNanos;
+            log.warn("Replica unavailable, reading from the primary for the next {} ms", retryAfterNanos / 1_000_000, e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private boolean routeToReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite();
+            return false;
+        }
+        long now = System.nanoTime();
+        return now - lastWriteNanos >= maxLagNanos && now - replicaDownUntilNanos >= 0;
+    }
+
+    // A write counts from its commit. Connections taken outside a transaction are not counted: the
+    // service writes only in transactions, and the connection pool and proxy take some at startup.
+    private void recordWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteNanos = System.nanoTime();
+            }
+        });
+    }
+}
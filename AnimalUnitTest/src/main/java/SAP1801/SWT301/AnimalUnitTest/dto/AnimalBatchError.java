@@ -0,0 +1,18 @@
+package SAP1801.SWT301.AnimalUnitTest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected item of a batch request; {@code index} is its position in the submitted list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimalBatchError {
+    private int index;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package SAP1801.SWT301.AnimalUnitTest.dto;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimalBatchResult {
+    private List<Animal> created;
+    private List<AnimalBatchError> errors;
+}
@@ -0,0 +1,22 @@
+package SAP1801.SWT301.AnimalUnitTest.dto;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One committed change as sent on the change feed. {@code eventId} is what a client passes back
+ * in {@code Last-Event-ID} to resume; {@code animal} is {@code null} for deletions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimalChange {
+    private String eventId;
+    private String type;
+    private Long id;
+    private Animal animal;
+}
@@ -0,0 +1,25 @@
+package SAP1801.SWT301.AnimalUnitTest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a CSV import. {@code errors} holds the first rejected lines, with {@code index} set to
+ * the 1-based line number in the file; {@code rejected} counts all of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimalImportResult {
+    private String file;
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private List<AnimalBatchError> errors;
+}
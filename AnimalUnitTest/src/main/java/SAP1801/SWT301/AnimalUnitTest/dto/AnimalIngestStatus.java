@@ -0,0 +1,25 @@
+package SAP1801.SWT301.AnimalUnitTest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of an animal submitted for asynchronous creation. {@code id} is set once the row is
+ * committed, {@code message} once it has failed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimalIngestStatus {
+    private String token;
+    private State state;
+    private Long id;
+    private String message;
+
+    public enum State {
+        PENDING, CREATED, FAILED
+    }
+}
@@ -0,0 +1,21 @@
+package SAP1801.SWT301.AnimalUnitTest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ranked ids of animals whose name matches a search; {@code nextOffset} is {@code null} on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnimalSearchPage {
+    private List<Long> ids;
+    private long total;
+    private Integer nextOffset;
+}
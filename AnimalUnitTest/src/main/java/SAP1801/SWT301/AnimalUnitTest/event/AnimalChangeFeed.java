@@ -0,0 +1,156 @@
+package SAP1801.SWT301.AnimalUnitTest.event;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed animal changes out to live subscribers. Recent changes are kept in a ring buffer
+ * so a subscriber that reconnects with the id of the last event it saw gets only what it missed.
+ * When that id is older than the buffer, or from before a restart, the subscriber is told to reset
+ * and reload instead.
+ * <p>
+ * Each subscriber has its own bounded queue and sender thread, so a slow client never holds up a
+ * commit. A subscriber whose queue overflows is sent what it already has and then disconnected;
+ * it resumes from the ring buffer when it reconnects.
+ */
+@Component
+public class AnimalChangeFeed {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AnimalChange[] ring;
+    private final int subscriberBuffer;
+    private final long keepAliveMillis;
+    private final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+    private long lastSequence;
+
+    @Autowired
+    public AnimalChangeFeed(@Value("${animal.changes.buffer-size:1024}") int bufferSize,
+                            @Value("${animal.changes.subscriber-buffer:256}") int subscriberBuffer,
+                            @Value("${animal.changes.keep-alive:PT15S}") Duration keepAlive) {
+        this.ring = new AnimalChange[bufferSize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.keepAliveMillis = keepAlive.toMillis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalChanged(AnimalChangedEvent event) {
+        synchronized (ring) {
+            long sequence = ++lastSequence;
+            AnimalChange change = new AnimalChange(epoch + "-" + sequence,
+                    event.type().name().toLowerCase(Locale.ROOT), event.id(), event.animal());
+            ring[(int) (sequence % ring.length)] = change;
+            for (Subscription subscription : subscribers) {
+                subscription.offer(change);
+            }
+        }
+    }
+
+    public Subscription subscribe(String lastEventId, Sink sink) {
+        Subscription subscription = new Subscription(sink);
+        // Replay and registration happen under the same lock as publishing, so nothing falls in between
+        synchronized (ring) {
+            Long resumeAfter = sequenceOf(lastEventId);
+            long oldest = Math.max(1, lastSequence - ring.length + 1);
+            if (lastEventId != null && (resumeAfter == null || resumeAfter < oldest - 1 || resumeAfter > lastSequence)) {
+                subscription.reset = true;
+            } else if (resumeAfter != null) {
+                for (long sequence = resumeAfter + 1; sequence <= lastSequence && !subscription.overflowed; sequence++) {
+                    subscription.offer(ring[(int) (sequence % ring.length)]);
+                }
+            }
+            if (!subscription.overflowed) {
+                subscribers.add(subscription);
+            }
+        }
+        subscription.sender = Thread.ofVirtual().name("animal-changes-sender").start(subscription::run);
+        return subscription;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private Long sequenceOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Where a subscription delivers its events; calls come from the subscription's own thread.
+     */
+    public interface Sink {
+        void send(AnimalChange change) throws IOException;
+
+        void reset() throws IOException;
+
+        void keepAlive() throws IOException;
+
+        void close();
+    }
+
+    public final class Subscription {
+        private final Sink sink;
+        private final BlockingQueue<AnimalChange> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private volatile boolean overflowed;
+        private volatile boolean cancelled;
+        private boolean reset;
+        private volatile Thread sender;
+
+        private Subscription(Sink sink) {
+            this.sink = sink;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscribers.remove(this);
+            if (sender != null) {
+                sender.interrupt();
+            }
+        }
+
+        private void offer(AnimalChange change) {
+            if (!queue.offer(change)) {
+                overflowed = true;
+                subscribers.remove(this);
+            }
+        }
+
+        private void run() {
+            try {
+                if (reset) {
+                    sink.reset();
+                }
+                while (!cancelled && !(overflowed && queue.isEmpty())) {
+                    AnimalChange change = queue.poll(keepAliveMillis, TimeUnit.MILLISECONDS);
+                    if (change != null) {
+                        sink.send(change);
+                    } else if (!overflowed) {
+                        sink.keepAlive();
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // The client went away or the subscription was cancelled
+            } finally {
+                subscribers.remove(this);
+                sink.close();
+            }
+        }
+    }
+}
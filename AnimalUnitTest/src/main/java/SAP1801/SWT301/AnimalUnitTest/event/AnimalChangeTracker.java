@@ -0,0 +1,41 @@
+package SAP1801.SWT301.AnimalUnitTest.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts committed changes to the animal table. The tag combines the counter with the start
+ * time of this process, so a tag from before a restart never matches one issued after it.
+ * <p>
+ * The counter lives in this process and only sees changes made through it, so it assumes this
+ * instance is the only writer: a row written by another instance, or by any other client of the
+ * database, leaves the tag unchanged and collection requests keep being answered with 304. Keeping
+ * the count in the database would cost every write transaction another statement and a lock on one
+ * shared row. When several instances write, turn tags off with
+ * {@code animal.collection-etag.enabled=false}.
+ */
+@Component
+public class AnimalChangeTracker {
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong changes = new AtomicLong();
+    private final boolean enabled;
+
+    @Autowired
+    public AnimalChangeTracker(@Value("${animal.collection-etag.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalChanged(AnimalChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    public Optional<String> currentTag() {
+        return enabled ? Optional.of(Long.toString(epoch, 36) + "-" + changes.get()) : Optional.empty();
+    }
+}
@@ -0,0 +1,29 @@
+package SAP1801.SWT301.AnimalUnitTest.event;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+
+/**
+ * Published by the service for every animal it creates, updates or deletes. Listeners that keep
+ * derived state should use {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * @param animal          the new state, or {@code null} for {@link Type#DELETED}
+ * @param previousSpecies the species before an update or delete, or {@code null} for {@link Type#CREATED}
+ *                        and when the writer did not read it
+ */
+public record AnimalChangedEvent(Type type, Long id, Animal animal, String previousSpecies) {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static AnimalChangedEvent created(Animal animal) {
+        return new AnimalChangedEvent(Type.CREATED, animal.getId(), animal, null);
+    }
+
+    public static AnimalChangedEvent updated(Animal animal, String previousSpecies) {
+        return new AnimalChangedEvent(Type.UPDATED, animal.getId(), animal, previousSpecies);
+    }
+
+    public static AnimalChangedEvent deleted(Long id, String previousSpecies) {
+        return new AnimalChangedEvent(Type.DELETED, id, null, previousSpecies);
+    }
+}
@@ -0,0 +1,7 @@
+package SAP1801.SWT301.AnimalUnitTest.exception;
+
+public class AnimalImportInProgressException extends RuntimeException {
+    public AnimalImportInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package SAP1801.SWT301.AnimalUnitTest.exception;
+
+public class AnimalIngestRejectedException extends RuntimeException {
+    public AnimalIngestRejectedException(String message) {
+        super(message);
+    }
+}
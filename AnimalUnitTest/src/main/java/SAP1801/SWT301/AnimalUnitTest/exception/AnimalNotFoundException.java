@@ -4,4 +4,16 @@ public class AnimalNotFoundException extends RuntimeException {
     public AnimalNotFoundException(String message) {
         super(message);
     }
+
+    private AnimalNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * For ids rejected before any query runs: the response is a plain 404, so the stack
+     * trace is never read and capturing it would be most of the cost of the request.
+     */
+    public static AnimalNotFoundException withoutStackTrace(String message) {
+        return new AnimalNotFoundException(message, false);
+    }
 }
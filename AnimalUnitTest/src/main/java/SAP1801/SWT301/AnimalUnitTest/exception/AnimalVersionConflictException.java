@@ -0,0 +1,7 @@
+package SAP1801.SWT301.AnimalUnitTest.exception;
+
+public class AnimalVersionConflictException extends RuntimeException {
+    public AnimalVersionConflictException(String message) {
+        super(message);
+    }
+}
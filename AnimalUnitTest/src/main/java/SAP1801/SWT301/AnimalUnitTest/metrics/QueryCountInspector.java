@@ -0,0 +1,65 @@
+package SAP1801.SWT301.AnimalUnitTest.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()}
+ * and {@link #stop()}. Work handed to another thread can be counted toward the requests it serves
+ * with {@link #current()} and {@link #countFor}. Statements are passed through unchanged.
+ */
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<List<AtomicInteger>> COUNTERS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<AtomicInteger> counters = COUNTERS.get();
+        if (counters != null) {
+            for (AtomicInteger counter : counters) {
+                counter.incrementAndGet();
+            }
+        }
+        return sql;
+    }
+
+    public static void start() {
+        COUNTERS.set(List.of(new AtomicInteger()));
+    }
+
+    /**
+     * @return the number of statements since {@link #start()}, or -1 if counting was not started
+     */
+    public static int stop() {
+        List<AtomicInteger> counters = COUNTERS.get();
+        COUNTERS.remove();
+        return counters == null ? -1 : counters.getFirst().get();
+    }
+
+    /**
+     * @return the counter of the request on this thread, or {@code null} if counting was not started
+     */
+    public static AtomicInteger current() {
+        List<AtomicInteger> counters = COUNTERS.get();
+        return counters == null ? null : counters.getFirst();
+    }
+
+    /**
+     * Runs {@code task} on this thread and counts each statement it issues toward every one of
+     * {@code counters}, so a query shared by several requests shows up in each of their counts.
+     */
+    public static void countFor(List<AtomicInteger> counters, Runnable task) {
+        List<AtomicInteger> previous = COUNTERS.get();
+        COUNTERS.set(counters);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                COUNTERS.remove();
+            } else {
+                COUNTERS.set(previous);
+            }
+        }
+    }
+}
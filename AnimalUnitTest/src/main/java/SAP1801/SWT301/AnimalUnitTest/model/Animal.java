@@ -1,7 +1,12 @@
 package SAP1801.SWT301.AnimalUnitTest.model;
 
+import SAP1801.SWT301.AnimalUnitTest.config.CacheConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GeneratedColumn;
 
 import java.util.List;
 
@@ -11,12 +16,32 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.ANIMAL_REGION)
+@Table(indexes = {
+        @Index(name = "idx_animal_species_id", columnList = "species, id"),
+        @Index(name = "idx_animal_species_key_id", columnList = "species_key, id")
+})
 public class Animal {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "animal_seq")
+    @SequenceGenerator(name = "animal_seq", sequenceName = "animal_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String name;
     @Column(nullable = false)
     private String species;
+    @Version
+    private Long version;
+    // Lower-cased species computed by the database, so case-insensitive lookups can use an index
+    @GeneratedColumn("lower(species)")
+    @Column(name = "species_key", insertable = false, updatable = false)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String speciesKey;
+
+    public Animal(Long id, String name, String species) {
+        this(id, name, species, null, null);
+    }
 }
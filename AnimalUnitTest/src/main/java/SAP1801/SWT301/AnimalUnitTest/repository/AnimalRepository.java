@@ -1,12 +1,48 @@
 package SAP1801.SWT301.AnimalUnitTest.repository;
 
+import SAP1801.SWT301.AnimalUnitTest.config.CacheConfig;
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
 import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface AnimalRepository extends JpaRepository<Animal, Long> {
+public interface AnimalRepository extends JpaRepository<Animal, Long>, AnimalWriteRepository {
+    // Results are cached until the animal table is next written
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.SPECIES_QUERY_REGION)
+    })
     List<Animal> findBySpecies(String species);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.SPECIES_QUERY_REGION)
+    })
+    List<Animal> findBySpeciesKey(String speciesKey);
+
+    List<Animal> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Animal> findBySpeciesAndIdGreaterThanOrderByIdAsc(String species, Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Animal> streamAllByOrderByIdAsc();
+
+    @Query("select a.id from Animal a where a.id > :after order by a.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    @Query("select new SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount(a.species, count(a)) from Animal a group by a.species")
+    List<SpeciesCount> countBySpecies();
 }
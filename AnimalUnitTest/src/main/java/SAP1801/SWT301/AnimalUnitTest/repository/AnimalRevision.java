@@ -0,0 +1,8 @@
+package SAP1801.SWT301.AnimalUnitTest.repository;
+
+/**
+ * Species and version of an animal as they were just before a write changed it. A {@code NULL}
+ * version, as left by rows written outside the application, is reported as 0.
+ */
+public record AnimalRevision(String species, long version) {
+}
@@ -0,0 +1,31 @@
+package SAP1801.SWT301.AnimalUnitTest.repository;
+
+import java.util.Optional;
+
+/**
+ * Writes that report the row as it was before them, read by the same statement that changes it.
+ */
+public interface AnimalWriteRepository {
+    /**
+     * Replaces name and species and increments the version.
+     *
+     * @return the species and version before the update, or empty if the animal does not exist
+     */
+    Optional<AnimalRevision> updateAnimalReturningPrevious(Long id, String name, String species);
+
+    /**
+     * Replaces name and species and increments the version if the animal is still at {@code version}.
+     * A NULL version, as left by rows written outside the application, counts as version 0.
+     *
+     * @return the species and version before the update, or empty if the animal does not exist or has
+     * moved past {@code version}
+     */
+    Optional<AnimalRevision> updateAnimalReturningPrevious(Long id, Long version, String name, String species);
+
+    /**
+     * Deletes the animal.
+     *
+     * @return the species and version it had, or empty if it did not exist
+     */
+    Optional<AnimalRevision> deleteAnimalReturningPrevious(Long id);
+}
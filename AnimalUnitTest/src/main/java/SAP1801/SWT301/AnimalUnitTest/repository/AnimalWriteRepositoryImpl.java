@@ -0,0 +1,86 @@
+package SAP1801.SWT301.AnimalUnitTest.repository;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * H2 implementation of {@link AnimalWriteRepository}. Each write is wrapped in {@code OLD TABLE (...)},
+ * which returns the affected rows as they were before the write, so one statement both changes the
+ * row and reports its previous state.
+ * <p>
+ * Hibernate treats these statements as queries, so after each one the {@link Animal} second-level
+ * cache region and the cached queries on its table are invalidated the way a JPQL bulk update does.
+ */
+public class AnimalWriteRepositoryImpl implements AnimalWriteRepository {
+    private final EntityManager entityManager;
+
+    @Autowired
+    public AnimalWriteRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public Optional<AnimalRevision> updateAnimalReturningPrevious(Long id, String name, String species) {
+        Query query = write("select species, coalesce(version, 0) from old table ("
+                + "update animal set name = :name, species = :species, version = coalesce(version, 0) + 1 where id = :id)")
+                .setParameter("id", id)
+                .setParameter("name", name)
+                .setParameter("species", species);
+        return revision(execute(query));
+    }
+
+    @Override
+    @Transactional
+    public Optional<AnimalRevision> updateAnimalReturningPrevious(Long id, Long version, String name, String species) {
+        Query query = write("select species, coalesce(version, 0) from old table ("
+                + "update animal set name = :name, species = :species, version = :version + 1 "
+                + "where id = :id and coalesce(version, 0) = :version)")
+                .setParameter("id", id)
+                .setParameter("version", version)
+                .setParameter("name", name)
+                .setParameter("species", species);
+        return revision(execute(query));
+    }
+
+    @Override
+    @Transactional
+    public Optional<AnimalRevision> deleteAnimalReturningPrevious(Long id) {
+        Query query = write("select species, coalesce(version, 0) from old table (delete from animal where id = :id)")
+                .setParameter("id", id);
+        return revision(execute(query));
+    }
+
+    private Query write(String sql) {
+        // Same as @Modifying(flushAutomatically = true): pending entity changes reach the row first
+        entityManager.flush();
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedEntityClass(Animal.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> execute(Query query) {
+        List<Object[]> rows = query.getResultList();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BulkOperationCleanupAction.schedule(session, session.getFactory().getMappingMetamodel().getEntityDescriptor(Animal.class));
+        // Same as @Modifying(clearAutomatically = true): no managed entity keeps the old state
+        entityManager.clear();
+        return rows;
+    }
+
+    private static Optional<AnimalRevision> revision(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.getFirst();
+        return Optional.of(new AnimalRevision((String) row[0], ((Number) row[1]).longValue()));
+    }
+}
@@ -0,0 +1,244 @@
+package SAP1801.SWT301.AnimalUnitTest.repository.offheap;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Sorting, paging and query by example for {@link OffHeapAnimalRepository}, evaluated in memory over
+ * the animals the store returns. Supports the {@link Animal} properties and every {@link ExampleMatcher}
+ * option; like Spring Data JPA, an unknown property fails with {@link PropertyReferenceException}.
+ */
+final class AnimalQuerySupport {
+    private static final Map<String, Function<Animal, Object>> PROPERTIES = Map.of(
+            "id", Animal::getId,
+            "name", Animal::getName,
+            "species", Animal::getSpecies,
+            "version", Animal::getVersion,
+            "speciesKey", Animal::getSpeciesKey);
+
+    private AnimalQuerySupport() {
+    }
+
+    static Comparator<Animal> comparator(Sort sort) {
+        Comparator<Animal> comparator = null;
+        for (Sort.Order order : sort) {
+            Function<Animal, Object> property = property(order.getProperty());
+            Comparator<Object> values = order.isIgnoreCase() ? AnimalQuerySupport::compareIgnoreCase : AnimalQuerySupport::compare;
+            Comparator<Object> directed = order.isAscending() ? values : values.reversed();
+            // Without explicit handling nulls sort low, as H2 orders them: first ascending, last descending
+            Comparator<Object> nulls = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> Comparator.nullsFirst(directed);
+                case NULLS_LAST -> Comparator.nullsLast(directed);
+                case NATIVE -> order.isAscending() ? Comparator.nullsFirst(directed) : Comparator.nullsLast(directed);
+            };
+            Comparator<Animal> next = Comparator.comparing(property, nulls);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator == null ? Comparator.comparing(Animal::getId) : comparator;
+    }
+
+    static <T> Page<T> page(List<T> sorted, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted);
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(new ArrayList<>(sorted.subList(from, to)), pageable, sorted.size());
+    }
+
+    static Predicate<Animal> predicate(Example<?> example) {
+        Object probe = example.getProbe();
+        if (!(probe instanceof Animal animal)) {
+            throw new IllegalArgumentException("Probe must be an Animal");
+        }
+        ExampleMatcher matcher = example.getMatcher();
+        List<Predicate<Animal>> predicates = new ArrayList<>();
+        for (Map.Entry<String, Function<Animal, Object>> property : PROPERTIES.entrySet()) {
+            String path = property.getKey();
+            if (matcher.isIgnoredPath(path)) {
+                continue;
+            }
+            ExampleMatcher.PropertySpecifier specifier = matcher.getPropertySpecifiers().getForPath(path);
+            Optional<Object> value = Optional.ofNullable(property.getValue().apply(animal));
+            if (specifier != null) {
+                value = specifier.transformValue(value);
+            }
+            Function<Animal, Object> getter = property.getValue();
+            if (value.isEmpty()) {
+                if (matcher.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    predicates.add(candidate -> getter.apply(candidate) == null);
+                }
+                continue;
+            }
+            Object expected = value.get();
+            if (expected instanceof String text) {
+                Boolean propertyIgnoreCase = specifier == null ? null : specifier.getIgnoreCase();
+                boolean ignoreCase = propertyIgnoreCase != null ? propertyIgnoreCase : matcher.isIgnoreCaseEnabled();
+                ExampleMatcher.StringMatcher stringMatcher = specifier != null && specifier.getStringMatcher() != null
+                        ? specifier.getStringMatcher()
+                        : matcher.getDefaultStringMatcher();
+                Predicate<String> matches = stringPredicate(text, stringMatcher, ignoreCase);
+                predicates.add(candidate -> getter.apply(candidate) instanceof String actual && matches.test(actual));
+            } else {
+                predicates.add(candidate -> expected.equals(getter.apply(candidate)));
+            }
+        }
+        if (predicates.isEmpty()) {
+            return candidate -> true;
+        }
+        return matcher.isAllMatching()
+                ? candidate -> predicates.stream().allMatch(predicate -> predicate.test(candidate))
+                : candidate -> predicates.stream().anyMatch(predicate -> predicate.test(candidate));
+    }
+
+    private static Predicate<String> stringPredicate(String expected, ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            Pattern pattern = Pattern.compile(expected, ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+            return actual -> pattern.matcher(actual).matches();
+        }
+        String needle = ignoreCase ? expected.toLowerCase(Locale.ROOT) : expected;
+        Predicate<String> matches = switch (stringMatcher) {
+            case STARTING -> value -> value.startsWith(needle);
+            case ENDING -> value -> value.endsWith(needle);
+            case CONTAINING -> value -> value.contains(needle);
+            default -> needle::equals;
+        };
+        return ignoreCase ? actual -> matches.test(actual.toLowerCase(Locale.ROOT)) : matches;
+    }
+
+    private static Function<Animal, Object> property(String name) {
+        Function<Animal, Object> property = PROPERTIES.get(name);
+        if (property == null) {
+            throw new PropertyReferenceException(name, TypeInformation.of(Animal.class), List.of());
+        }
+        return property;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object left, Object right) {
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private static int compareIgnoreCase(Object left, Object right) {
+        return left instanceof String leftText && right instanceof String rightText
+                ? String.CASE_INSENSITIVE_ORDER.compare(leftText, rightText)
+                : compare(left, right);
+    }
+
+    /**
+     * {@code findBy} over the animals matching an example. Only {@link Animal} itself (or a supertype)
+     * is supported as result type; {@code project} is accepted as a hint and ignored, since every
+     * property is already in memory.
+     */
+    static final class FetchableQuery<T> implements FluentQuery.FetchableFluentQuery<T> {
+        private final Supplier<List<Animal>> animals;
+        private final Predicate<Animal> predicate;
+        private final Sort sort;
+        private final int limit;
+
+        FetchableQuery(Supplier<List<Animal>> animals, Predicate<Animal> predicate, Sort sort, int limit) {
+            this.animals = animals;
+            this.predicate = predicate;
+            this.sort = sort;
+            this.limit = limit;
+        }
+
+        @Override
+        public FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new FetchableQuery<>(animals, predicate, this.sort.and(sort), limit);
+        }
+
+        @Override
+        public FetchableFluentQuery<T> limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            return new FetchableQuery<>(animals, predicate, sort, limit);
+        }
+
+        @Override
+        public <R> FetchableFluentQuery<R> as(Class<R> resultType) {
+            if (!resultType.isAssignableFrom(Animal.class)) {
+                throw new UnsupportedOperationException("Projections are not supported in the edge profile");
+            }
+            return new FetchableQuery<>(animals, predicate, sort, limit);
+        }
+
+        @Override
+        public FetchableFluentQuery<T> project(Collection<String> properties) {
+            properties.forEach(AnimalQuerySupport::property);
+            return this;
+        }
+
+        @Override
+        public T oneValue() {
+            List<T> matches = fetch(2);
+            if (matches.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, matches.size());
+            }
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+
+        @Override
+        public T firstValue() {
+            List<T> matches = fetch(1);
+            return matches.isEmpty() ? null : matches.get(0);
+        }
+
+        @Override
+        public List<T> all() {
+            return fetch(limit);
+        }
+
+        @Override
+        public Page<T> page(Pageable pageable) {
+            return AnimalQuerySupport.page(fetch(limit), pageable);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return animals.get().stream().filter(predicate).limit(limit).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return animals.get().stream().anyMatch(predicate);
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> fetch(int max) {
+            return (List<T>) animals.get().stream()
+                    .filter(predicate)
+                    .sorted(comparator(sort))
+                    .limit(Math.min(max, limit))
+                    .toList();
+        }
+    }
+}
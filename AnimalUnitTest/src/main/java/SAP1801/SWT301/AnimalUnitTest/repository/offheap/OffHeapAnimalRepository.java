@@ -0,0 +1,369 @@
+package SAP1801.SWT301.AnimalUnitTest.repository.offheap;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRevision;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * {@link AnimalRepository} backed by an {@link OffHeapAnimalStore} instead of the database, for
+ * single-node edge deployments. Enable with {@code --spring.profiles.active=edge}.
+ * <p>
+ * Writes take effect immediately and are not rolled back with the surrounding transaction. The
+ * store is restored from {@code animal.edge.snapshot-file} on startup and written back to it on
+ * shutdown and every {@code animal.edge.snapshot-interval} while there are unsaved changes, so a
+ * crash loses at most one interval of writes.
+ */
+@Repository
+@Primary
+@Profile("edge")
+public class OffHeapAnimalRepository implements AnimalRepository {
+    private static final Logger log = LoggerFactory.getLogger(OffHeapAnimalRepository.class);
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    private final OffHeapAnimalStore store;
+    private final Path snapshotFile;
+    private long savedModifications;
+
+    @Autowired
+    public OffHeapAnimalRepository(@Value("${animal.edge.snapshot-file:data/animals.snapshot}") Path snapshotFile,
+                                   @Value("${animal.edge.initial-capacity:1024}") int initialCapacity) throws IOException {
+        this.store = new OffHeapAnimalStore(initialCapacity);
+        this.snapshotFile = snapshotFile;
+        if (Files.exists(snapshotFile)) {
+            store.restore(snapshotFile);
+            log.info("Restored {} animals from {}", store.size(), snapshotFile);
+        }
+        savedModifications = store.modifications();
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${animal.edge.snapshot-interval:PT5M}",
+            initialDelayString = "${animal.edge.snapshot-interval:PT5M}")
+    public synchronized void snapshot() {
+        long modifications = store.modifications();
+        if (modifications == savedModifications) {
+            return;
+        }
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            store.snapshot(snapshotFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write snapshot " + snapshotFile, e);
+        }
+        // Changes made while the snapshot was written may be missing from it, so they count as unsaved
+        savedModifications = modifications;
+    }
+
+    @Override
+    public List<Animal> findBySpecies(String species) {
+        return store.bySpecies(species, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Animal> findBySpeciesKey(String speciesKey) {
+        return store.bySpeciesIgnoreCase(speciesKey);
+    }
+
+    @Override
+    public List<Animal> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit) {
+        return store.after(id, limitOf(limit));
+    }
+
+    @Override
+    public List<Animal> findBySpeciesAndIdGreaterThanOrderByIdAsc(String species, Long id, Limit limit) {
+        return store.bySpecies(species, id, limitOf(limit));
+    }
+
+    @Override
+    public Stream<Animal> streamAllByOrderByIdAsc() {
+        return Stream.iterate(store.after(0, STREAM_PAGE_SIZE), page -> !page.isEmpty(),
+                        page -> store.after(page.get(page.size() - 1).getId(), STREAM_PAGE_SIZE))
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public Optional<AnimalRevision> updateAnimalReturningPrevious(Long id, String name, String species) {
+        requireColumns(name, species);
+        return Optional.ofNullable(store.update(id, null, name, species)).map(OffHeapAnimalRepository::revisionOf);
+    }
+
+    @Override
+    public Optional<AnimalRevision> updateAnimalReturningPrevious(Long id, Long version, String name, String species) {
+        requireColumns(name, species);
+        return Optional.ofNullable(store.update(id, version, name, species)).map(OffHeapAnimalRepository::revisionOf);
+    }
+
+    @Override
+    public Optional<AnimalRevision> deleteAnimalReturningPrevious(Long id) {
+        return Optional.ofNullable(store.remove(id)).map(OffHeapAnimalRepository::revisionOf);
+    }
+
+    @Override
+    public List<Long> findIdsAfter(Long after, Limit limit) {
+        long[] ids = store.idsAfter(after, limitOf(limit));
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    @Override
+    public List<SpeciesCount> countBySpecies() {
+        return store.countBySpecies().entrySet().stream()
+                .map(entry -> new SpeciesCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // Same contract as merge(): an unknown id is inserted under a new id, a stale version is rejected
+    @Override
+    public <S extends Animal> S save(S entity) {
+        requireColumns(entity.getName(), entity.getSpecies());
+        Animal stored;
+        if (entity.getId() == null || !store.contains(entity.getId())) {
+            stored = store.insert(entity.getName(), entity.getSpecies());
+        } else if (store.update(entity.getId(), entity.getVersion(), entity.getName(), entity.getSpecies()) == null) {
+            throw new ObjectOptimisticLockingFailureException(Animal.class, entity.getId());
+        } else {
+            stored = store.get(entity.getId());
+        }
+        entity.setId(stored.getId());
+        entity.setVersion(stored.getVersion());
+        entity.setSpeciesKey(stored.getSpeciesKey());
+        return entity;
+    }
+
+    @Override
+    public <S extends Animal> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public <S extends Animal> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Animal> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public Optional<Animal> findById(Long id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.contains(id);
+    }
+
+    @Override
+    public List<Animal> findAll() {
+        return store.after(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Animal> findAllById(Iterable<Long> ids) {
+        List<Animal> found = new ArrayList<>();
+        for (Long id : ids) {
+            Animal animal = store.get(id);
+            if (animal != null) {
+                found.add(animal);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        store.remove(id);
+    }
+
+    @Override
+    public void delete(Animal entity) {
+        if (entity.getId() != null) {
+            store.remove(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Animal> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.clear();
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Animal> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        store.clear();
+    }
+
+    @Override
+    public void flush() {
+        // Writes go straight to the store
+    }
+
+    @Override
+    public Animal getReferenceById(Long id) {
+        Animal animal = store.get(id);
+        if (animal == null) {
+            throw new EntityNotFoundException("Unable to find " + Animal.class.getName() + " with id " + id);
+        }
+        return animal;
+    }
+
+    @Override
+    @Deprecated
+    public Animal getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Animal getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public List<Animal> findAll(Sort sort) {
+        List<Animal> animals = new ArrayList<>(findAll());
+        animals.sort(AnimalQuerySupport.comparator(sort));
+        return animals;
+    }
+
+    // Pages in id order, the default, are cut from the id index without materializing the skipped rows
+    @Override
+    public Page<Animal> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return AnimalQuerySupport.page(findAll(pageable.getSort()), pageable);
+        }
+        if (pageable.getSort().isUnsorted() || pageable.getSort().equals(Sort.by("id"))) {
+            long end = Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+            long[] ids = store.idsAfter(0, (int) end);
+            List<Animal> content = new ArrayList<>();
+            for (int i = (int) Math.min(pageable.getOffset(), ids.length); i < ids.length; i++) {
+                Animal animal = store.get(ids[i]);
+                if (animal != null) {
+                    content.add(animal);
+                }
+            }
+            return new PageImpl<>(content, pageable, store.size());
+        }
+        return AnimalQuerySupport.page(findAll(pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends Animal> Optional<S> findOne(Example<S> example) {
+        return Optional.ofNullable(findBy(example, FluentQuery.FetchableFluentQuery::oneValue));
+    }
+
+    @Override
+    public <S extends Animal> List<S> findAll(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::all);
+    }
+
+    @Override
+    public <S extends Animal> List<S> findAll(Example<S> example, Sort sort) {
+        return findBy(example, query -> query.sortBy(sort).all());
+    }
+
+    @Override
+    public <S extends Animal> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return findBy(example, query -> query.sortBy(pageable.getSort()).page(pageable));
+    }
+
+    @Override
+    public <S extends Animal> long count(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::count);
+    }
+
+    @Override
+    public <S extends Animal> boolean exists(Example<S> example) {
+        return findBy(example, FluentQuery.FetchableFluentQuery::exists);
+    }
+
+    // Examples are matched in memory against every stored animal
+    @Override
+    public <S extends Animal, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new AnimalQuerySupport.FetchableQuery<>(
+                this::findAll, AnimalQuerySupport.predicate(example), Sort.unsorted(), Integer.MAX_VALUE));
+    }
+
+    // Mirrors the NOT NULL columns of the animal table
+    private static void requireColumns(String name, String species) {
+        if (name == null || species == null) {
+            throw new DataIntegrityViolationException("NULL not allowed for column \""
+                    + (name == null ? "name" : "species").toUpperCase(Locale.ROOT) + "\"");
+        }
+    }
+
+    private static int limitOf(Limit limit) {
+        return limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+    }
+
+    private static AnimalRevision revisionOf(Animal animal) {
+        return new AnimalRevision(animal.getSpecies(), animal.getVersion() == null ? 0L : animal.getVersion());
+    }
+}
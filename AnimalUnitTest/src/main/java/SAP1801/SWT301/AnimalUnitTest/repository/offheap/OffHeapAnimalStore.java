@@ -0,0 +1,561 @@
+package SAP1801.SWT301.AnimalUnitTest.repository.offheap;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Animals held outside the Java heap. Each record is appended to a direct buffer as
+ * {@code id, version, species code, name length, UTF-8 name}; species are interned into a small
+ * on-heap dictionary. An open-addressing {@code long -> offset} table finds records by id without
+ * boxing, and sorted {@code long[]} id lists (all ids, and ids per species) serve ordered and
+ * per-species reads.
+ * <p>
+ * Updates append a new record and leave the old one as garbage; the arena is compacted once more
+ * than half of it is garbage. Offsets are ints, so the live records are limited to 2 GB.
+ * <p>
+ * {@link #snapshot(Path)} writes the dictionary and the live records, in id order, to a
+ * memory-mapped file. {@link #restore(Path)} copies that record block back into the arena in one
+ * bulk copy and rebuilds the indexes with a single sequential scan.
+ */
+public class OffHeapAnimalStore {
+    private static final int MAGIC = 0x414F4831; // "AOH1"
+    private static final int ID = 0;
+    private static final int VERSION = 8;
+    private static final int SPECIES = 16;
+    private static final int NAME_LENGTH = 20;
+    private static final int HEADER = 24;
+    private static final int NULL = -1;
+    private static final long EMPTY = 0L;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int MIN_COMPACT_BYTES = 1 << 20;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<String> speciesByCode = new ArrayList<>();
+    private final Map<String, Integer> speciesCodes = new HashMap<>();
+    private final List<IdList> idsBySpecies = new ArrayList<>();
+    private final IdList ids = new IdList();
+
+    private ByteBuffer arena;
+    private int arenaEnd;
+    private int garbage;
+    // Open addressing with linear probing; id 0 marks an empty slot, as sequence ids start at 1
+    private long[] keys;
+    private int[] offsets;
+    private int shift;
+    private long nextId = 1;
+    private long modifications;
+
+    public OffHeapAnimalStore(int initialCapacity) {
+        int slots = Integer.highestOneBit(Math.max(16, initialCapacity * 2 - 1)) << 1;
+        keys = new long[slots];
+        offsets = new int[slots];
+        shift = 64 - Integer.numberOfTrailingZeros(slots);
+        arena = ByteBuffer.allocateDirect(Math.max(4096, initialCapacity * 48));
+    }
+
+    public Animal get(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = find(id);
+            return slot < 0 ? null : read(offsets[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long modifications() {
+        lock.readLock().lock();
+        try {
+            return modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a new animal under the next id, at version 0.
+     */
+    public Animal insert(String name, String species) {
+        lock.writeLock().lock();
+        try {
+            return read(insert(nextId++, 0L, name, species));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces name and species if the animal exists and, when {@code expectedVersion} is given,
+     * is still at that version. The version goes up by one, as the {@code @Version} column does.
+     *
+     * @return the animal as it was before the update, or {@code null} if it was not updated
+     */
+    public Animal update(long id, Long expectedVersion, String name, String species) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return null;
+            }
+            long version = arena.getLong(offsets[slot] + VERSION);
+            if (expectedVersion != null && version != expectedVersion) {
+                return null;
+            }
+            Animal previous = read(offsets[slot]);
+            replace(slot, version == NULL ? 0L : version + 1, name, species);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return find(id) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the animal as it was before removal, or {@code null} if it did not exist
+     */
+    public Animal remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = find(id);
+            if (slot < 0) {
+                return null;
+            }
+            int offset = offsets[slot];
+            Animal previous = read(offset);
+            int speciesCode = arena.getInt(offset + SPECIES);
+            garbage += recordLength(offset);
+            ids.remove(id);
+            if (speciesCode != NULL) {
+                idsBySpecies.get(speciesCode).remove(id);
+            }
+            delete(slot);
+            modifications++;
+            compactIfNeeded();
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(keys, EMPTY);
+            ids.clear();
+            idsBySpecies.forEach(IdList::clear);
+            arenaEnd = 0;
+            garbage = 0;
+            modifications++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} ids greater than {@code after}, ascending
+     */
+    public long[] idsAfter(long after, int limit) {
+        lock.readLock().lock();
+        try {
+            return ids.after(after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Animal> after(long after, int limit) {
+        lock.readLock().lock();
+        try {
+            return readAll(ids.after(after, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Animal> bySpecies(String species, long after, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer code = speciesCodes.get(species);
+            return code == null ? List.of() : readAll(idsBySpecies.get(code).after(after, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The dictionary is small, so matching its entries case-insensitively is cheaper than a second index
+    public List<Animal> bySpeciesIgnoreCase(String speciesKey) {
+        lock.readLock().lock();
+        try {
+            long[] matches = new long[0];
+            int count = 0;
+            for (int code = 0; code < speciesByCode.size(); code++) {
+                if (speciesByCode.get(code).toLowerCase(Locale.ROOT).equals(speciesKey)) {
+                    IdList list = idsBySpecies.get(code);
+                    matches = Arrays.copyOf(matches, count + list.size);
+                    System.arraycopy(list.ids, 0, matches, count, list.size);
+                    count += list.size;
+                }
+            }
+            Arrays.sort(matches);
+            return readAll(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Long> countBySpecies() {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int code = 0; code < speciesByCode.size(); code++) {
+                if (idsBySpecies.get(code).size > 0) {
+                    counts.put(speciesByCode.get(code), (long) idsBySpecies.get(code).size);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Writers wait while the snapshot is written; readers do not
+    public void snapshot(Path file) throws IOException {
+        lock.readLock().lock();
+        try {
+            List<byte[]> species = speciesByCode.stream().map(name -> name.getBytes(StandardCharsets.UTF_8)).toList();
+            long size = 4 + 8 + 4 + 4 + 8;
+            for (byte[] name : species) {
+                size += 4 + name.length;
+            }
+            long recordBytes = (long) arenaEnd - garbage;
+            size += recordBytes;
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                out.putInt(MAGIC).putLong(nextId).putInt(species.size());
+                for (byte[] name : species) {
+                    out.putInt(name.length).put(name);
+                }
+                out.putInt(ids.size).putLong(recordBytes);
+                for (int i = 0; i < ids.size; i++) {
+                    int offset = offsets[find(ids.ids[i])];
+                    out.put(arena.slice(offset, recordLength(offset)));
+                }
+                out.force();
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void restore(Path file) throws IOException {
+        lock.writeLock().lock();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not an animal snapshot: " + file);
+            }
+            long restoredNextId = in.getLong();
+            speciesByCode.clear();
+            speciesCodes.clear();
+            idsBySpecies.clear();
+            int speciesCount = in.getInt();
+            for (int code = 0; code < speciesCount; code++) {
+                byte[] name = new byte[in.getInt()];
+                in.get(name);
+                intern(new String(name, StandardCharsets.UTF_8));
+            }
+            int records = in.getInt();
+            int recordBytes = Math.toIntExact(in.getLong());
+            if (arena.capacity() < recordBytes) {
+                arena = ByteBuffer.allocateDirect(recordBytes + (recordBytes >> 1));
+            }
+            arena.put(0, in, in.position(), recordBytes);
+            arenaEnd = recordBytes;
+            garbage = 0;
+            ids.clear();
+            keys = new long[Math.max(keys.length, Integer.highestOneBit(Math.max(16, records * 2 - 1)) << 1)];
+            offsets = new int[keys.length];
+            shift = 64 - Integer.numberOfTrailingZeros(keys.length);
+            for (int offset = 0; offset < arenaEnd; offset += recordLength(offset)) {
+                index(arena.getLong(offset + ID), offset);
+            }
+            nextId = restoredNextId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int insert(long id, long version, String name, String species) {
+        int offset = append(id, version, name, species);
+        index(id, offset);
+        modifications++;
+        return offset;
+    }
+
+    private void replace(int slot, long version, String name, String species) {
+        int previous = offsets[slot];
+        long id = arena.getLong(previous + ID);
+        int previousSpecies = arena.getInt(previous + SPECIES);
+        int offset = append(id, version, name, species);
+        // append() may have compacted the arena, so the old record is located again
+        slot = find(id);
+        garbage += recordLength(offsets[slot]);
+        offsets[slot] = offset;
+        int speciesCode = arena.getInt(offset + SPECIES);
+        if (speciesCode != previousSpecies) {
+            if (previousSpecies != NULL) {
+                idsBySpecies.get(previousSpecies).remove(id);
+            }
+            if (speciesCode != NULL) {
+                idsBySpecies.get(speciesCode).add(id);
+            }
+        }
+        modifications++;
+        compactIfNeeded();
+    }
+
+    private void index(long id, int offset) {
+        if ((ids.size + 1) * 10L > keys.length * 6L) {
+            rehash(keys.length << 1);
+        }
+        int slot = slot(id);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = id;
+        offsets[slot] = offset;
+        ids.add(id);
+        int speciesCode = arena.getInt(offset + SPECIES);
+        if (speciesCode != NULL) {
+            idsBySpecies.get(speciesCode).add(id);
+        }
+    }
+
+    private int append(long id, long version, String name, String species) {
+        byte[] utf8 = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER + (utf8 == null ? 0 : utf8.length);
+        ensureArena(length);
+        int offset = arenaEnd;
+        arena.putLong(offset + ID, id);
+        arena.putLong(offset + VERSION, version);
+        arena.putInt(offset + SPECIES, species == null ? NULL : intern(species));
+        arena.putInt(offset + NAME_LENGTH, utf8 == null ? NULL : utf8.length);
+        if (utf8 != null) {
+            arena.put(offset + HEADER, utf8);
+        }
+        arenaEnd += length;
+        return offset;
+    }
+
+    private Animal read(int offset) {
+        int nameLength = arena.getInt(offset + NAME_LENGTH);
+        String name = null;
+        if (nameLength != NULL) {
+            byte[] utf8 = new byte[nameLength];
+            arena.get(offset + HEADER, utf8);
+            name = new String(utf8, StandardCharsets.UTF_8);
+        }
+        String species = species(arena.getInt(offset + SPECIES));
+        return new Animal(arena.getLong(offset + ID), name, species, version(arena.getLong(offset + VERSION)),
+                species == null ? null : species.toLowerCase(Locale.ROOT));
+    }
+
+    private List<Animal> readAll(long[] matches) {
+        List<Animal> animals = new ArrayList<>(matches.length);
+        for (long id : matches) {
+            animals.add(read(offsets[find(id)]));
+        }
+        return animals;
+    }
+
+    private int recordLength(int offset) {
+        return HEADER + Math.max(0, arena.getInt(offset + NAME_LENGTH));
+    }
+
+    private String species(int code) {
+        return code == NULL ? null : speciesByCode.get(code);
+    }
+
+    private static Long version(long version) {
+        return version == NULL ? null : version;
+    }
+
+    private int intern(String species) {
+        Integer code = speciesCodes.get(species);
+        if (code == null) {
+            code = speciesByCode.size();
+            speciesByCode.add(species);
+            speciesCodes.put(species, code);
+            idsBySpecies.add(new IdList());
+        }
+        return code;
+    }
+
+    private int slot(long id) {
+        return (int) ((id * GOLDEN) >>> shift);
+    }
+
+    private int find(long id) {
+        if (id == EMPTY) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(id); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                offsets[hole] = offsets[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    private void rehash(int slots) {
+        long[] oldKeys = keys;
+        int[] oldOffsets = offsets;
+        keys = new long[slots];
+        offsets = new int[slots];
+        shift = 64 - Integer.numberOfTrailingZeros(slots);
+        int mask = slots - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                offsets[slot] = oldOffsets[i];
+            }
+        }
+    }
+
+    private void ensureArena(int length) {
+        if (arenaEnd + (long) length <= arena.capacity()) {
+            return;
+        }
+        long live = (long) arenaEnd - garbage + length;
+        long capacity = Math.min(Integer.MAX_VALUE, Math.max(live + (live >> 1), 4096));
+        if (live > capacity) {
+            throw new IllegalStateException("Off-heap animal store is full");
+        }
+        moveLiveRecords((int) capacity);
+    }
+
+    private void compactIfNeeded() {
+        if (garbage > MIN_COMPACT_BYTES && garbage > arenaEnd / 2) {
+            moveLiveRecords(arena.capacity());
+        }
+    }
+
+    // Copies the live records, in id order, to the start of a fresh buffer
+    private void moveLiveRecords(int capacity) {
+        ByteBuffer target = ByteBuffer.allocateDirect(capacity);
+        int end = 0;
+        for (int i = 0; i < ids.size; i++) {
+            int slot = find(ids.ids[i]);
+            int length = recordLength(offsets[slot]);
+            target.put(end, arena, offsets[slot], length);
+            offsets[slot] = end;
+            end += length;
+        }
+        arena = target;
+        arenaEnd = end;
+        garbage = 0;
+    }
+
+    /**
+     * Sorted, duplicate-free ids. Ids are handed out in increasing order, so adds are appends.
+     */
+    private static final class IdList {
+        private long[] ids = new long[8];
+        private int size;
+
+        void add(long id) {
+            int at = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            int insertAt = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+            }
+        }
+
+        long[] after(long after, int limit) {
+            int from = Arrays.binarySearch(ids, 0, size, after);
+            from = from >= 0 ? from + 1 : -from - 1;
+            return Arrays.copyOfRange(ids, from, from + Math.min(limit, size - from));
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapAnimalStore[animals=" + ids.size + ", species=" + speciesByCode.size()
+                + ", arena=" + arenaEnd + "/" + arena.capacity() + " bytes]";
+    }
+}
@@ -1,15 +1,33 @@
 package SAP1801.SWT301.AnimalUnitTest.service;
 
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
 import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalSearchPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangeFeed;
 import SAP1801.SWT301.AnimalUnitTest.model.Animal;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AnimalService {
     List<Animal> getAllAnimals();
+    AnimalPage getAnimalPage(Long after, int limit);
+    void exportAnimals(Consumer<Animal> consumer);
     Animal getAnimalById(Long id);
+    List<Animal> getAnimalsByIds(List<Long> ids);
     Animal createAnimal(AnimalDto animalDto);
+    AnimalBatchResult createAnimals(List<AnimalDto> animalDtos);
     void deleteAnimal(Long id);
     List<Animal> getAnimalBySpecies(String species);
+    List<Animal> getAnimalBySpeciesIgnoreCase(String species);
+    AnimalPage getAnimalPageBySpecies(String species, Long after, int limit);
     Animal updateAnimal(Long id, AnimalDto animalDto);
+    Animal updateAnimal(Long id, AnimalDto animalDto, Long expectedVersion);
+    Optional<String> getCollectionTag();
+    AnimalChangeFeed.Subscription subscribeToChanges(String lastEventId, AnimalChangeFeed.Sink sink);
+    List<SpeciesCount> getSpeciesStats();
+    AnimalSearchPage searchAnimals(String query, int offset, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,294 @@
+package SAP1801.SWT301.AnimalUnitTest.service.Impl;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchError;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalImportResult;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalImportInProgressException;
+import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulk import of {@code name,species} CSV files from {@code animal.import.directory}. The file is
+ * split into line-aligned chunks that are memory-mapped and parsed in parallel, each worker
+ * writing its rows through {@link AnimalService#createAnimals} in batches of
+ * {@code animal.import.batch-size}. Lines are split at their last comma, so names may contain
+ * commas; there is no quoting. A first line of {@code name,species} is taken as a header.
+ * <p>
+ * Each batch commits on its own: a failure stops the import but leaves earlier batches in place.
+ * Only one import runs at a time.
+ */
+@Component
+public class AnimalCsvImporter {
+    private static final Logger log = LoggerFactory.getLogger(AnimalCsvImporter.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+    private static final int MAX_CACHED_SPECIES = 10_000;
+    private static final byte[] HEADER = "name,species".getBytes(StandardCharsets.US_ASCII);
+
+    private final AnimalService animalService;
+    private final Path directory;
+    private final int parallelism;
+    private final int batchSize;
+    private final ReentrantLock running = new ReentrantLock();
+
+    @Autowired
+    public AnimalCsvImporter(AnimalService animalService,
+                             @Value("${animal.import.directory:import}") Path directory,
+                             @Value("${animal.import.parallelism:4}") int parallelism,
+                             @Value("${animal.import.batch-size:1000}") int batchSize) {
+        this.animalService = animalService;
+        this.directory = directory;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    public AnimalImportResult importFile(String fileName) {
+        Path file = resolve(fileName);
+        if (!running.tryLock()) {
+            throw new AnimalImportInProgressException("An import is already running");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long started = System.nanoTime();
+            List<long[]> chunks = split(channel);
+            List<Chunk> results = new ArrayList<>(chunks.size());
+            try (ExecutorService workers = Executors.newFixedThreadPool(Math.clamp(chunks.size(), 1, parallelism),
+                    Thread.ofPlatform().name("animal-import-", 0).factory())) {
+                List<Future<Chunk>> futures = new ArrayList<>(chunks.size());
+                for (int i = 0; i < chunks.size(); i++) {
+                    long[] bounds = chunks.get(i);
+                    boolean first = i == 0;
+                    futures.add(workers.submit(() -> parse(channel, bounds[0], bounds[1], first)));
+                }
+                for (Future<Chunk> future : futures) {
+                    results.add(await(future, workers));
+                }
+            }
+            long elapsedNanos = System.nanoTime() - started;
+            AnimalImportResult result = summarize(fileName, results, elapsedNanos);
+            log.info("Imported {} animals from {} in {} ms ({} rows/s), {} lines rejected",
+                    result.getImported(), file, result.getElapsedMillis(), result.getRowsPerSecond(), result.getRejected());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    // Symbolic links are resolved first, so neither "../" nor a link can reach outside the directory
+    private Path resolve(String fileName) {
+        try {
+            Path root = directory.toRealPath();
+            Path file = root.resolve(fileName).toRealPath();
+            if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+                throw new IllegalArgumentException("Not a file in the import directory: " + fileName);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Not a file in the import directory: " + fileName, e);
+        }
+    }
+
+    // Chunk boundaries are moved forward to the next line start, so every line belongs to exactly one chunk
+    private List<long[]> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.clamp(size / (parallelism * 4L) + 1, MIN_CHUNK_BYTES, MAX_CHUNK_BYTES);
+        List<long[]> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size);
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        for (long position = from - 1; position < size; position += buffer.limit()) {
+            buffer.clear();
+            channel.read(buffer, position);
+            buffer.flip();
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    private Chunk parse(FileChannel channel, long start, long end, boolean first) throws IOException {
+        MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        Chunk chunk = new Chunk();
+        Map<ByteBuffer, String> speciesCache = new HashMap<>();
+        byte[] scratch = new byte[256];
+        List<AnimalDto> batch = new ArrayList<>(batchSize);
+        int[] batchLines = new int[batchSize];
+        int length = data.limit();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && data.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int line = chunk.lines++;
+            int contentEnd = lineEnd > lineStart && data.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart && !(first && line == 0 && isHeader(data, lineStart, contentEnd))) {
+                int comma = contentEnd - 1;
+                while (comma >= lineStart && data.get(comma) != ',') {
+                    comma--;
+                }
+                if (comma < lineStart) {
+                    chunk.reject(line, "Expected name,species");
+                } else {
+                    int nameLength = comma - lineStart;
+                    if (scratch.length < nameLength) {
+                        scratch = new byte[Math.max(nameLength, scratch.length * 2)];
+                    }
+                    data.get(lineStart, scratch, 0, nameLength);
+                    String name = new String(scratch, 0, nameLength, StandardCharsets.UTF_8);
+                    String species = species(data, comma + 1, contentEnd, speciesCache);
+                    String error = validate(name, species);
+                    if (error != null) {
+                        chunk.reject(line, error);
+                    } else {
+                        batchLines[batch.size()] = line;
+                        batch.add(new AnimalDto(name, species));
+                        if (batch.size() == batchSize) {
+                            write(batch, batchLines, chunk);
+                        }
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (!batch.isEmpty()) {
+            write(batch, batchLines, chunk);
+        }
+        return chunk;
+    }
+
+    // A data set has few species, so each distinct one is decoded once per chunk and then reused
+    private static String species(MappedByteBuffer data, int from, int to, Map<ByteBuffer, String> cache) {
+        ByteBuffer key = data.slice(from, to - from);
+        String species = cache.get(key);
+        if (species == null) {
+            byte[] bytes = new byte[to - from];
+            data.get(from, bytes);
+            species = new String(bytes, StandardCharsets.UTF_8);
+            if (cache.size() < MAX_CACHED_SPECIES) {
+                cache.put(ByteBuffer.wrap(bytes), species);
+            }
+        }
+        return species;
+    }
+
+    private static boolean isHeader(MappedByteBuffer data, int from, int to) {
+        if (to - from != HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if ((data.get(from + i) | 0x20) != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String validate(String name, String species) {
+        if (name.isBlank()) {
+            return "Name must not be blank";
+        }
+        if (species.isBlank()) {
+            return "Species must not be blank";
+        }
+        return null;
+    }
+
+    private void write(List<AnimalDto> batch, int[] batchLines, Chunk chunk) {
+        AnimalBatchResult result = animalService.createAnimals(batch);
+        chunk.imported += result.getCreated().size();
+        for (AnimalBatchError error : result.getErrors()) {
+            chunk.reject(batchLines[error.getIndex()], error.getMessage());
+        }
+        batch.clear();
+    }
+
+    private static Chunk await(Future<Chunk> future, ExecutorService workers) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            workers.shutdownNow();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Import failed", e.getCause());
+        }
+    }
+
+    // Line numbers are local to each chunk until the line counts of the chunks before it are known
+    private static AnimalImportResult summarize(String fileName, List<Chunk> chunks, long elapsedNanos) {
+        long imported = 0;
+        long rejected = 0;
+        long firstLine = 1;
+        List<AnimalBatchError> errors = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            imported += chunk.imported;
+            rejected += chunk.rejected;
+            for (AnimalBatchError error : chunk.errors) {
+                errors.add(new AnimalBatchError((int) (firstLine + error.getIndex()), error.getMessage()));
+            }
+            firstLine += chunk.lines;
+        }
+        errors.sort(Comparator.comparingInt(AnimalBatchError::getIndex));
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        long rowsPerSecond = elapsedNanos == 0 ? imported : imported * 1_000_000_000L / elapsedNanos;
+        return new AnimalImportResult(fileName, imported, rejected, elapsedMillis, rowsPerSecond,
+                List.copyOf(errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS))));
+    }
+
+    private static final class Chunk {
+        private final List<AnimalBatchError> errors = new ArrayList<>();
+        private int lines;
+        private long imported;
+        private long rejected;
+
+        void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new AnimalBatchError(line, message));
+            }
+        }
+    }
+}
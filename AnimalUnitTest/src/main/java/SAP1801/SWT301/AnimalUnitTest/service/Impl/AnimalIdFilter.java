@@ -0,0 +1,133 @@
+package SAP1801.SWT301.AnimalUnitTest.service.Impl;
+
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangedEvent;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One bit per animal id, so lookups for ids that were never created or were deleted can be
+ * answered without a query. Sequence ids are dense, so the set costs about one byte per eight ids.
+ * <p>
+ * The filter may report ids that no longer exist, but never misses one that does: creations are
+ * marked before their transaction commits, deletions are cleared only after it has committed, and
+ * until the startup load has finished every id is treated as possibly present.
+ * <p>
+ * The filter only sees changes made through this instance, so it assumes this instance is the
+ * only writer. Ids above the highest one seen are always looked up in the database, which covers
+ * rows another writer appended after startup; a row another writer inserts below that id (for
+ * example from its own sequence block) is reported missing until this instance restarts. Disable
+ * the filter with {@code animal.id-filter.enabled=false} when several instances write.
+ */
+@Component
+public class AnimalIdFilter {
+    // Ids beyond this are not tracked and always go to the database (caps the set at 128 MB)
+    static final long MAX_TRACKED_ID = 1L << 30;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final AnimalRepository animalRepository;
+    private final boolean enabled;
+    // Readers never lock; writers replace the array under the monitor when it has to grow
+    private volatile AtomicLongArray words = new AtomicLongArray(0);
+    private volatile boolean loaded;
+    private volatile long highestId = -1L;
+
+    @Autowired
+    public AnimalIdFilter(AnimalRepository animalRepository,
+                          @Value("${animal.id-filter.enabled:true}") boolean enabled) {
+        this.animalRepository = animalRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean mightContain(Long id) {
+        if (!loaded || id == null || id < 0 || id >= MAX_TRACKED_ID || id > highestId) {
+            return true;
+        }
+        AtomicLongArray current = words;
+        int word = (int) (id >>> 6);
+        return word < current.length() && (current.get(word) & (1L << id)) != 0;
+    }
+
+    // A write transaction, so the ids come from the primary: ids missing from a lagging replica
+    // would be answered with 404 until they were next written
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        // Changes made while this runs are applied to the same set, so nothing is lost
+        long after = 0L;
+        List<Long> ids;
+        do {
+            ids = animalRepository.findIdsAfter(after, Limit.of(LOAD_PAGE_SIZE));
+            addAll(ids);
+            if (!ids.isEmpty()) {
+                after = ids.getLast();
+            }
+        } while (ids.size() == LOAD_PAGE_SIZE);
+        loaded = true;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAnimalCreated(AnimalChangedEvent event) {
+        if (event.type() == AnimalChangedEvent.Type.CREATED) {
+            addAll(List.of(event.id()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalDeleted(AnimalChangedEvent event) {
+        if (event.type() == AnimalChangedEvent.Type.DELETED) {
+            remove(event.id());
+        }
+    }
+
+    private synchronized void addAll(List<Long> ids) {
+        for (Long id : ids) {
+            if (id == null || id < 0 || id >= MAX_TRACKED_ID) {
+                continue;
+            }
+            int word = (int) (id >>> 6);
+            AtomicLongArray current = words;
+            if (word >= current.length()) {
+                current = grow(current, word);
+            }
+            current.getAndUpdate(word, bits -> bits | (1L << id));
+            if (id > highestId) {
+                highestId = id;
+            }
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        if (id == null || id < 0 || id >= MAX_TRACKED_ID) {
+            return;
+        }
+        int word = (int) (id >>> 6);
+        AtomicLongArray current = words;
+        if (word < current.length()) {
+            current.getAndUpdate(word, bits -> bits & ~(1L << id));
+        }
+    }
+
+    private AtomicLongArray grow(AtomicLongArray current, int word) {
+        int length = Math.max(word + 1, current.length() + (current.length() >> 1));
+        AtomicLongArray grown = new AtomicLongArray(length);
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        words = grown;
+        return grown;
+    }
+}
@@ -0,0 +1,206 @@
+package SAP1801.SWT301.AnimalUnitTest.service.Impl;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchError;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalIngestStatus;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalIngestRejectedException;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind queue for asynchronously created animals. A single writer thread takes whatever has
+ * queued up since its last commit, up to {@code animal.ingest.max-batch-size}, and inserts it with
+ * one {@link AnimalService#createAnimals} call, so the commit cost is shared by the whole group.
+ * <p>
+ * Accepted items live only in memory until they are written: a crash loses them. A pending token is
+ * kept until its item is written, however long that takes; the created or failed status that replaces
+ * it expires {@code animal.ingest.status-ttl} later. The queue stops after the web server has finished its graceful
+ * shutdown and writes everything accepted until then; later submissions are rejected.
+ */
+@Component
+public class AnimalIngestQueue implements SmartLifecycle, MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(AnimalIngestQueue.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final AnimalService animalService;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    // Never evicted: bounded by the queue capacity plus the batch being written
+    private final Map<String, AnimalIngestStatus> pending = new ConcurrentHashMap<>();
+    private final Cache<String, AnimalIngestStatus> completed;
+
+    // Submissions hold the read lock, so none can slip in between stop() closing the queue and the writer draining it
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private boolean stopped;
+    private Thread writer;
+
+    @Autowired
+    public AnimalIngestQueue(AnimalService animalService,
+                             @Value("${animal.ingest.queue-capacity:10000}") int capacity,
+                             @Value("${animal.ingest.max-batch-size:500}") int maxBatchSize,
+                             @Value("${animal.ingest.status-ttl:10m}") Duration statusTtl) {
+        this.animalService = animalService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.completed = Caffeine.newBuilder().expireAfterWrite(statusTtl).build();
+    }
+
+    // Invalid input is rejected here, before it is queued, so callers get a 400 rather than a failed token
+    public AnimalIngestStatus submit(AnimalDto animalDto) {
+        String error = AnimalServiceImpl.validate(animalDto);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        String token = UUID.randomUUID().toString();
+        AnimalIngestStatus status = new AnimalIngestStatus(token, AnimalIngestStatus.State.PENDING, null, null);
+        submitLock.readLock().lock();
+        try {
+            if (stopped) {
+                throw new AnimalIngestRejectedException("Ingest queue is shutting down");
+            }
+            pending.put(token, status);
+            if (!queue.offer(new Pending(token, animalDto))) {
+                pending.remove(token);
+                throw new AnimalIngestRejectedException("Ingest queue is full");
+            }
+        } finally {
+            submitLock.readLock().unlock();
+        }
+        return status;
+    }
+
+    public Optional<AnimalIngestStatus> status(String token) {
+        AnimalIngestStatus status = pending.get(token);
+        return Optional.ofNullable(status != null ? status : completed.getIfPresent(token));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("animal.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Animals accepted for asynchronous creation and not yet written")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        submitLock.writeLock().lock();
+        try {
+            stopped = false;
+            running = true;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        writer = Thread.ofPlatform().name("animal-ingest-writer").daemon().start(this::drainLoop);
+    }
+
+    // Keeps writing until the queue is empty, so a graceful shutdown does not drop accepted items
+    @Override
+    public void stop() {
+        submitLock.writeLock().lock();
+        try {
+            stopped = true;
+            running = false;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server's graceful shutdown, once no request can submit any more
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        try {
+            AnimalBatchResult result = animalService.createAnimals(batch.stream().map(Pending::animalDto).toList());
+            Map<Integer, String> errors = result.getErrors().stream()
+                    .collect(Collectors.toMap(AnimalBatchError::getIndex, AnimalBatchError::getMessage));
+            // Created animals come back in submission order with the rejected items left out
+            Iterator<Long> ids = result.getCreated().stream().map(Animal::getId).iterator();
+            for (int i = 0; i < batch.size(); i++) {
+                String token = batch.get(i).token();
+                String error = errors.get(i);
+                complete(token, error == null
+                        ? new AnimalIngestStatus(token, AnimalIngestStatus.State.CREATED, ids.next(), null)
+                        : new AnimalIngestStatus(token, AnimalIngestStatus.State.FAILED, null, error));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} queued animals", batch.size(), e);
+            for (Pending item : batch) {
+                complete(item.token(), new AnimalIngestStatus(item.token(), AnimalIngestStatus.State.FAILED, null, e.getMessage()));
+            }
+        }
+    }
+
+    // Stored before the pending entry goes, so a poll in between still finds the token
+    private void complete(String token, AnimalIngestStatus status) {
+        completed.put(token, status);
+        pending.remove(token);
+    }
+
+    record Pending(String token, AnimalDto animalDto) {
+    }
+}
@@ -0,0 +1,238 @@
+package SAP1801.SWT301.AnimalUnitTest.service.Impl;
+
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangedEvent;
+import SAP1801.SWT301.AnimalUnitTest.metrics.QueryCountInspector;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Merges single-id lookups that arrive within a short window into one {@code IN} query.
+ * Callers asking for an id that is already being loaded wait on the same result instead
+ * of issuing their own query. A zero window turns batching off but keeps the de-duplication.
+ * <p>
+ * A window only opens while another batch is loading: a lookup that finds nothing in flight is
+ * loaded at once on the caller's thread, so a lone request never pays the window. Callers wait at
+ * most {@code animal.lookup.timeout} for their result and then fail with {@link QueryTimeoutException}.
+ * <p>
+ * A batch query is counted in the per-request statement count of every request that queued an id
+ * for it; requests that only waited on a lookup already in flight do not count it.
+ * <p>
+ * Once a change to an animal commits, callers no longer join a lookup of it that was already in
+ * flight, since that lookup may have read the row before the change. They start their own instead.
+ */
+@Component
+public class AnimalLookupCoalescer implements DisposableBean {
+    private final AnimalRepository animalRepository;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutNanos;
+    private final ConcurrentHashMap<Long, CompletableFuture<Optional<Animal>>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("animal-lookup-timer").daemon().factory());
+    // Batches run off the timer thread so a slow query never delays the next window
+    private final ExecutorService loader = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("animal-lookup-", 0).factory());
+
+    private final Object lock = new Object();
+    private List<Lookup> pending = new ArrayList<>();
+    private List<AtomicInteger> pendingQueryCounters = new ArrayList<>();
+    private int loadingBatches;
+
+    @Autowired
+    public AnimalLookupCoalescer(AnimalRepository animalRepository,
+                                 @Value("${animal.lookup.coalesce-window:2ms}") Duration window,
+                                 @Value("${animal.lookup.max-batch-size:100}") int maxBatchSize,
+                                 @Value("${animal.lookup.timeout:5s}") Duration timeout) {
+        this.animalRepository = animalRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public Optional<Animal> find(Long id) {
+        CompletableFuture<Optional<Animal>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<Animal>> existing = inFlight.putIfAbsent(id, future);
+        if (existing != null) {
+            return await(id, existing);
+        }
+        Lookup lookup = new Lookup(id, future);
+        if (windowNanos <= 0) {
+            load(List.of(lookup));
+        } else {
+            enqueue(lookup, QueryCountInspector.current());
+        }
+        return await(id, future);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalChanged(AnimalChangedEvent event) {
+        // The lookup keeps running for the callers already waiting on it
+        inFlight.remove(event.id());
+    }
+
+    private void enqueue(Lookup lookup, AtomicInteger queryCounter) {
+        Batch now = null;
+        Batch full = null;
+        boolean openWindow = false;
+        synchronized (lock) {
+            pending.add(lookup);
+            if (queryCounter != null) {
+                pendingQueryCounters.add(queryCounter);
+            }
+            if (pending.size() >= maxBatchSize) {
+                full = drain();
+            } else if (pending.size() == 1) {
+                if (loadingBatches == 0) {
+                    now = drain();
+                } else {
+                    openWindow = true;
+                }
+            }
+        }
+        if (now != null) {
+            load(now);
+        } else if (full != null) {
+            execute(full);
+        } else if (openWindow) {
+            try {
+                timer.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                Batch batch;
+                synchronized (lock) {
+                    batch = drain();
+                }
+                fail(batch, e);
+            }
+        }
+    }
+
+    private void flush() {
+        Batch batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        if (!batch.lookups().isEmpty()) {
+            execute(batch);
+        }
+    }
+
+    // Called with the lock held; counts the drained batch as loading until load(Batch) finishes
+    private Batch drain() {
+        Batch batch = new Batch(pending, pendingQueryCounters);
+        pending = new ArrayList<>();
+        pendingQueryCounters = new ArrayList<>();
+        if (!batch.lookups().isEmpty()) {
+            loadingBatches++;
+        }
+        return batch;
+    }
+
+    private void execute(Batch batch) {
+        try {
+            loader.execute(() -> load(batch));
+        } catch (RejectedExecutionException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void load(Batch batch) {
+        try {
+            QueryCountInspector.countFor(batch.queryCounters(), () -> load(batch.lookups()));
+        } finally {
+            synchronized (lock) {
+                loadingBatches--;
+            }
+        }
+    }
+
+    private void fail(Batch batch, RuntimeException e) {
+        synchronized (lock) {
+            loadingBatches--;
+        }
+        for (Lookup lookup : batch.lookups()) {
+            done(lookup).completeExceptionally(e);
+        }
+    }
+
+    private void load(List<Lookup> lookups) {
+        try {
+            // A lone id keeps the primary-key lookup instead of a one-element IN list
+            if (lookups.size() == 1) {
+                Lookup lookup = lookups.getFirst();
+                Optional<Animal> animal = animalRepository.findById(lookup.id());
+                done(lookup).complete(animal);
+                return;
+            }
+            Map<Long, Animal> found = animalRepository.findAllById(lookups.stream().map(Lookup::id).toList()).stream()
+                    .collect(Collectors.toMap(Animal::getId, Function.identity()));
+            for (Lookup lookup : lookups) {
+                done(lookup).complete(Optional.ofNullable(found.get(lookup.id())));
+            }
+        } catch (RuntimeException e) {
+            for (Lookup lookup : lookups) {
+                done(lookup).completeExceptionally(e);
+            }
+        }
+    }
+
+    // Only the entry this lookup created is removed; a change may already have let a newer one in
+    private CompletableFuture<Optional<Animal>> done(Lookup lookup) {
+        inFlight.remove(lookup.id(), lookup.future());
+        return lookup.future();
+    }
+
+    private Optional<Animal> await(Long id, CompletableFuture<Optional<Animal>> future) {
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The batch keeps running and still completes the future for callers that join later
+            throw new QueryTimeoutException("Lookup of animal " + id + " timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrupted while looking up animal " + id, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+        loader.shutdown();
+    }
+
+    private record Batch(List<Lookup> lookups, List<AtomicInteger> queryCounters) {
+    }
+
+    private record Lookup(Long id, CompletableFuture<Optional<Animal>> future) {
+    }
+}
@@ -0,0 +1,235 @@
+package SAP1801.SWT301.AnimalUnitTest.service.Impl;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalSearchPage;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangedEvent;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over animal names. Names are padded with two boundary characters before they are
+ * split, so queries shorter than three characters match name prefixes through a single padded gram,
+ * and longer queries match anywhere in the name through the intersection of their trigrams.
+ * <p>
+ * Posting lists are sorted {@code long[]} runs; sequence ids arrive in increasing order, so inserts
+ * are appends. Candidates are checked against the stored name before they are ranked: exact
+ * matches first, then prefix matches, then shorter names, then lower ids.
+ */
+@Component
+public class AnimalNameIndex {
+    private static final char BOUNDARY = '\u0002';
+    private static final int GRAM = 3;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final long ID_MASK = (1L << 53) - 1;
+
+    private final AnimalRepository animalRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    // Deletes seen while the startup load runs, so an older page cannot bring them back
+    private Set<Long> deletedDuringLoad = new HashSet<>();
+
+    @Autowired
+    public AnimalNameIndex(AnimalRepository animalRepository) {
+        this.animalRepository = animalRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long after = 0L;
+        List<Animal> animals;
+        do {
+            animals = animalRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_PAGE_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Animal animal : animals) {
+                    if (!deletedDuringLoad.contains(animal.getId()) && !names.containsKey(animal.getId())) {
+                        put(animal.getId(), animal.getName());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!animals.isEmpty()) {
+                after = animals.getLast().getId();
+            }
+        } while (animals.size() == LOAD_PAGE_SIZE);
+        lock.writeLock().lock();
+        try {
+            deletedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalChanged(AnimalChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.id());
+            if (event.type() == AnimalChangedEvent.Type.DELETED) {
+                if (deletedDuringLoad != null) {
+                    deletedDuringLoad.add(event.id());
+                }
+            } else {
+                put(event.id(), event.animal().getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public AnimalSearchPage search(String query, int offset, int limit) {
+        String normalized = normalize(query);
+        boolean prefixOnly = normalized.length() < GRAM;
+        long[] keys;
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            long[] candidates = candidates(prefixOnly ? List.of(paddedPrefix(normalized)) : List.copyOf(substringGrams(normalized)));
+            keys = new long[candidates.length];
+            for (long id : candidates) {
+                String name = names.get(id);
+                // A padded prefix gram already proves the prefix; trigram hits still need the substring check
+                if (prefixOnly || name.contains(normalized)) {
+                    keys[total++] = sortKey(id, name, normalized);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(keys, 0, total);
+        int from = Math.min(offset, total);
+        int to = Math.min(from + limit, total);
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(keys[i] & ID_MASK);
+        }
+        return new AnimalSearchPage(ids, total, to < total ? to : null);
+    }
+
+    private long[] candidates(List<String> grams) {
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        // Walk the shortest list and probe the others, so the cost follows the rarest gram
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings shortest = lists.getFirst();
+        long[] ids = new long[shortest.size];
+        int count = 0;
+        for (int i = 0; i < shortest.size; i++) {
+            long id = shortest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                ids[count++] = id;
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    // Packs rank (2 bits), name length (8 bits) and id (53 bits) so ranking is a primitive sort
+    private static long sortKey(long id, String name, String query) {
+        long rank = name.equals(query) ? 0 : name.startsWith(query) ? 1 : 2;
+        long length = Math.min(name.length(), 0xFF);
+        return rank << 61 | length << 53 | id;
+    }
+
+    private void put(Long id, String name) {
+        String normalized = normalize(name);
+        names.put(id, normalized);
+        for (String gram : indexGrams(normalized)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        String previous = names.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : indexGrams(previous)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> indexGrams(String name) {
+        return substringGrams(String.valueOf(BOUNDARY).repeat(GRAM - 1) + name);
+    }
+
+    private static Set<String> substringGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String paddedPrefix(String query) {
+        return String.valueOf(BOUNDARY).repeat(GRAM - query.length()) + query;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0 && at < size) {
+                return;
+            }
+            int insertAt = at < 0 ? -at - 1 : at;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -1,58 +1,300 @@
 package SAP1801.SWT301.AnimalUnitTest.service.Impl;
 
+import SAP1801.SWT301.AnimalUnitTest.config.CacheConfig;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchError;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
 import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalSearchPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangeFeed;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangeTracker;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangedEvent;
 import SAP1801.SWT301.AnimalUnitTest.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalVersionConflictException;
 import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRevision;
 import SAP1801.SWT301.AnimalUnitTest.model.Animal;
 import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "animal.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+@Counted(value = "animal.service.failures", recordFailuresOnly = true)
 public class AnimalServiceImpl implements AnimalService {
+    static final String NOT_FOUND_MESSAGE = "Cannot found animal from the id";
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 10_000;
+    // Flushed and cleared every chunk so the persistence context does not grow with the batch
+    private static final int INSERT_CHUNK_SIZE = 500;
+
     private final AnimalRepository animalRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AnimalChangeTracker changeTracker;
+    private final AnimalLookupCoalescer lookupCoalescer;
+    private final AnimalIdFilter idFilter;
+    private final SpeciesStatistics speciesStatistics;
+    private final AnimalNameIndex nameIndex;
+    private final AnimalChangeFeed changeFeed;
 
     @Autowired
-    public AnimalServiceImpl(AnimalRepository animalRepository) {
+    public AnimalServiceImpl(AnimalRepository animalRepository, EntityManager entityManager,
+                             ApplicationEventPublisher eventPublisher, AnimalChangeTracker changeTracker,
+                             AnimalLookupCoalescer lookupCoalescer, AnimalIdFilter idFilter,
+                             SpeciesStatistics speciesStatistics, AnimalNameIndex nameIndex,
+                             AnimalChangeFeed changeFeed) {
         this.animalRepository = animalRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.changeTracker = changeTracker;
+        this.lookupCoalescer = lookupCoalescer;
+        this.idFilter = idFilter;
+        this.speciesStatistics = speciesStatistics;
+        this.nameIndex = nameIndex;
+        this.changeFeed = changeFeed;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Animal> getAllAnimals() {
         return animalRepository.findAll();
     }
 
     @Override
+    public AnimalPage getAnimalPage(Long after, int limit) {
+        int pageSize = clampPageSize(limit);
+        return toPage(animalRepository.findByIdGreaterThanOrderByIdAsc(cursorOf(after), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    // Rows are detached once handed to the consumer so the persistence context stays empty
+    // and memory is flat no matter how many rows the cursor walks over.
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAnimals(Consumer<Animal> consumer) {
+        try (Stream<Animal> animals = animalRepository.streamAllByOrderByIdAsc()) {
+            animals.forEach(animal -> {
+                consumer.accept(animal);
+                entityManager.detach(animal);
+            });
+        }
+    }
+
+    // Not transactional: a read-only transaction takes its connection up front, and the caller would
+    // hold it while the coalescer's loader thread waits for one of its own. The repository's
+    // findById and findAllById already run in read-only transactions, which go to the replica.
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ANIMAL_CACHE, key = "#id")
     public Animal getAnimalById(Long id) {
-        return animalRepository.findById(id).orElseThrow(() -> new AnimalNotFoundException("Cannot found animal from the id"))  ;
+        if (!idFilter.mightContain(id)) {
+            throw AnimalNotFoundException.withoutStackTrace(NOT_FOUND_MESSAGE);
+        }
+        return lookupCoalescer.find(id).orElseThrow(() -> new AnimalNotFoundException(NOT_FOUND_MESSAGE));
+    }
+
+    // Missing ids are skipped; the rest come back in the order they were asked for.
+    @Override
+    public List<Animal> getAnimalsByIds(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Cannot look up more than " + MAX_PAGE_SIZE + " ids at once");
+        }
+        distinct.removeIf(id -> !idFilter.mightContain(id));
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Animal> found = new HashMap<>();
+        for (Animal animal : animalRepository.findAllById(distinct)) {
+            found.put(animal.getId(), animal);
+        }
+        List<Animal> animals = new ArrayList<>(found.size());
+        for (Long id : distinct) {
+            Animal animal = found.get(id);
+            if (animal != null) {
+                animals.add(animal);
+            }
+        }
+        return animals;
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.ANIMAL_CACHE, key = "#result.id")
+    @Transactional
     public Animal createAnimal(AnimalDto animalDto) {
         Animal animal = new Animal();
         animal.setName(animalDto.getName());
         animal.setSpecies(animalDto.getSpecies());
-        return animalRepository.save(animal);
+        Animal savedAnimal = animalRepository.save(animal);
+        eventPublisher.publishEvent(AnimalChangedEvent.created(savedAnimal));
+        return savedAnimal;
     }
 
     @Override
+    @Transactional
+    public AnimalBatchResult createAnimals(List<AnimalDto> animalDtos) {
+        if (animalDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch cannot contain more than " + MAX_BATCH_SIZE + " animals");
+        }
+        List<Animal> valid = new ArrayList<>(animalDtos.size());
+        List<AnimalBatchError> errors = new ArrayList<>();
+        for (int i = 0; i < animalDtos.size(); i++) {
+            AnimalDto animalDto = animalDtos.get(i);
+            String error = validate(animalDto);
+            if (error != null) {
+                errors.add(new AnimalBatchError(i, error));
+                continue;
+            }
+            valid.add(new Animal(null, animalDto.getName(), animalDto.getSpecies()));
+        }
+
+        List<Animal> created = new ArrayList<>(valid.size());
+        for (int from = 0; from < valid.size(); from += INSERT_CHUNK_SIZE) {
+            created.addAll(animalRepository.saveAll(valid.subList(from, Math.min(from + INSERT_CHUNK_SIZE, valid.size()))));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        created.forEach(animal -> eventPublisher.publishEvent(AnimalChangedEvent.created(animal)));
+        return new AnimalBatchResult(created, errors);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ANIMAL_CACHE, key = "#id")
+    @Transactional
     public void deleteAnimal(Long id) {
-        Animal deletedAnimal = animalRepository.findById(id).orElseThrow(() -> new AnimalNotFoundException("Cannot found animal from the id"));
-        animalRepository.delete(deletedAnimal);
+        if (!idFilter.mightContain(id)) {
+            throw AnimalNotFoundException.withoutStackTrace(NOT_FOUND_MESSAGE);
+        }
+        AnimalRevision previous = animalRepository.deleteAnimalReturningPrevious(id)
+                .orElseThrow(() -> new AnimalNotFoundException(NOT_FOUND_MESSAGE));
+        eventPublisher.publishEvent(AnimalChangedEvent.deleted(id, previous.species()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Animal> getAnimalBySpecies(String species) {
         return animalRepository.findBySpecies(species);
     }
 
+    @Override
+    public List<Animal> getAnimalBySpeciesIgnoreCase(String species) {
+        return animalRepository.findBySpeciesKey(species.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public AnimalPage getAnimalPageBySpecies(String species, Long after, int limit) {
+        int pageSize = clampPageSize(limit);
+        return toPage(animalRepository.findBySpeciesAndIdGreaterThanOrderByIdAsc(species, cursorOf(after), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.ANIMAL_CACHE, key = "#id")
+    @Transactional
     public Animal updateAnimal(Long id, AnimalDto animalDto) {
-        return animalRepository.findById(id).map(animal -> {
-            animal.setName(animalDto.getName());
-            animal.setSpecies(animalDto.getSpecies());
-            return animalRepository.save(animal);
-        }).orElseThrow(() -> new RuntimeException("Animal not found"));
+        // The update returns the version it replaced, so the new one is known without reading it back
+        AnimalRevision previous = animalRepository.updateAnimalReturningPrevious(id, animalDto.getName(), animalDto.getSpecies())
+                .orElseThrow(() -> new AnimalNotFoundException(NOT_FOUND_MESSAGE));
+        return updated(id, animalDto, previous);
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.ANIMAL_CACHE, key = "#id")
+    @Transactional
+    public Animal updateAnimal(Long id, AnimalDto animalDto, Long expectedVersion) {
+        Optional<AnimalRevision> previous = animalRepository.updateAnimalReturningPrevious(id, expectedVersion, animalDto.getName(), animalDto.getSpecies());
+        if (previous.isEmpty()) {
+            if (animalRepository.existsById(id)) {
+                throw new AnimalVersionConflictException("Animal was modified by another request");
+            }
+            throw new AnimalNotFoundException(NOT_FOUND_MESSAGE);
+        }
+        return updated(id, animalDto, previous.get());
+    }
+
+    @Override
+    public Optional<String> getCollectionTag() {
+        return changeTracker.currentTag();
+    }
+
+    @Override
+    public AnimalChangeFeed.Subscription subscribeToChanges(String lastEventId, AnimalChangeFeed.Sink sink) {
+        return changeFeed.subscribe(lastEventId, sink);
+    }
+
+    @Override
+    public List<SpeciesCount> getSpeciesStats() {
+        return speciesStatistics.snapshot();
+    }
+
+    @Override
+    public AnimalSearchPage searchAnimals(String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        return nameIndex.search(query, offset, clampPageSize(limit));
+    }
+
+    private Animal updated(Long id, AnimalDto animalDto, AnimalRevision previous) {
+        Animal animal = new Animal(id, animalDto.getName(), animalDto.getSpecies());
+        animal.setVersion(previous.version() + 1);
+        eventPublisher.publishEvent(AnimalChangedEvent.updated(animal, previous.species()));
+        return animal;
+    }
+
+    static String validate(AnimalDto animalDto) {
+        if (animalDto == null) {
+            return "Animal must not be null";
+        }
+        if (animalDto.getName() == null || animalDto.getName().isBlank()) {
+            return "Name must not be blank";
+        }
+        if (animalDto.getSpecies() == null || animalDto.getSpecies().isBlank()) {
+            return "Species must not be blank";
+        }
+        return null;
+    }
+
+    // Larger pages are cut down to the maximum; an empty or negative page is a client error
+    private static int clampPageSize(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static long cursorOf(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // One extra row is fetched to know whether another page exists without a count query.
+    private static AnimalPage toPage(List<Animal> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new AnimalPage(rows, null);
+        }
+        List<Animal> content = rows.subList(0, pageSize);
+        return new AnimalPage(List.copyOf(content), content.getLast().getId());
     }
 }
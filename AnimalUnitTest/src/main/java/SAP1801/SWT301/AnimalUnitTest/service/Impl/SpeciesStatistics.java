@@ -0,0 +1,120 @@
+package SAP1801.SWT301.AnimalUnitTest.service.Impl;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangedEvent;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Animal counts per species, kept up to date from committed changes so reading them costs
+ * O(species) instead of a scan. Every write reports the species it replaced, so updates and deletes
+ * apply a -1/+1 delta like creates do.
+ * <p>
+ * A periodic {@code GROUP BY} replaces the counts with the truth, catching writes made outside this
+ * instance. Changes committed while that query runs are recorded next to the live counts and
+ * replayed onto its result before it is swapped in, so they are not lost. A change that commits
+ * just before the query starts but is applied just after may be counted twice until the next
+ * reconciliation.
+ */
+@Component
+public class SpeciesStatistics {
+    private final AnimalRepository animalRepository;
+    // Deltas take the read lock so they can run together; swapping in a reconciled map takes the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // LongAdder stripes its cells, so writers adding to a popular species do not contend
+    private volatile ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+    // Deltas applied since the running reconciliation started its query, or null when none is running
+    private volatile ConcurrentHashMap<String, LongAdder> sinceReconcileStarted;
+
+    @Autowired
+    public SpeciesStatistics(AnimalRepository animalRepository) {
+        this.animalRepository = animalRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimalChanged(AnimalChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event.animal().getSpecies(), 1);
+            case UPDATED -> {
+                String species = event.animal().getSpecies();
+                if (!Objects.equals(event.previousSpecies(), species)) {
+                    add(event.previousSpecies(), -1);
+                    add(species, 1);
+                }
+            }
+            case DELETED -> add(event.previousSpecies(), -1);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${animal.species-stats.reconcile-interval:PT5M}",
+            initialDelayString = "${animal.species-stats.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        ConcurrentHashMap<String, LongAdder> changes = new ConcurrentHashMap<>();
+        swap(() -> sinceReconcileStarted = changes);
+        ConcurrentHashMap<String, LongAdder> fresh = new ConcurrentHashMap<>();
+        try {
+            for (SpeciesCount speciesCount : animalRepository.countBySpecies()) {
+                add(fresh, speciesCount.getSpecies(), speciesCount.getCount());
+            }
+        } catch (RuntimeException e) {
+            swap(() -> sinceReconcileStarted = null);
+            throw e;
+        }
+        swap(() -> {
+            changes.forEach((species, delta) -> add(fresh, species, delta.sum()));
+            counts = fresh;
+            sinceReconcileStarted = null;
+        });
+    }
+
+    public List<SpeciesCount> snapshot() {
+        return counts.entrySet().stream()
+                .map(entry -> new SpeciesCount(entry.getKey(), entry.getValue().sum()))
+                .filter(speciesCount -> speciesCount.getCount() > 0)
+                .sorted(Comparator.comparing(SpeciesCount::getSpecies))
+                .toList();
+    }
+
+    private void add(String species, long delta) {
+        if (species == null) {
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            add(counts, species, delta);
+            ConcurrentHashMap<String, LongAdder> changes = sinceReconcileStarted;
+            if (changes != null) {
+                add(changes, species, delta);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void swap(Runnable action) {
+        swapLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static void add(ConcurrentHashMap<String, LongAdder> counts, String species, long delta) {
+        counts.computeIfAbsent(species, key -> new LongAdder()).add(delta);
+    }
+}
@@ -0,0 +1,74 @@
+package SAP1801.SWT301.AnimalUnitTest.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    void AdaptiveConcurrencyLimit_TryAcquire_ReturnFalseAtLimit() {
+        //Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 2.0);
+
+        //Act
+        boolean first = limit.tryAcquire();
+        boolean second = limit.tryAcquire();
+        boolean third = limit.tryAcquire();
+
+        //Assert
+        Assertions.assertTrue(first);
+        Assertions.assertTrue(second);
+        Assertions.assertFalse(third);
+        Assertions.assertEquals(2, limit.getInflight());
+    }
+
+    @Test
+    void AdaptiveConcurrencyLimit_Release_ReturnLowerLimitWhenLatencyRises() {
+        //Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 100, 2.0);
+        runAtLimit(limit, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        int steady = limit.getLimit();
+
+        //Act
+        runAtLimit(limit, 50, TimeUnit.MILLISECONDS.toNanos(200));
+        int overloaded = limit.getLimit();
+        runAtLimit(limit, 2000, TimeUnit.MILLISECONDS.toNanos(10));
+        int recovered = limit.getLimit();
+
+        //Assert
+        Assertions.assertTrue(steady > 20, "grows while latency holds: " + steady);
+        // The square-root queue allowance keeps a few requests admitted even under overload
+        Assertions.assertTrue(overloaded <= 5, "shrinks while latency is high: " + overloaded);
+        Assertions.assertTrue(recovered > 20, "recovers once latency drops: " + recovered);
+    }
+
+    @Test
+    void AdaptiveConcurrencyLimit_Release_ReturnSameLimitWhenLightlyUsed() {
+        //Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 100, 2.0);
+
+        //Act
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 1 : 500));
+        }
+
+        //Assert
+        Assertions.assertEquals(20, limit.getLimit());
+    }
+
+    // Keeps the limit saturated: every completion is observed with all permits in use
+    private static void runAtLimit(AdaptiveConcurrencyLimit limit, int requests, long latencyNanos) {
+        for (int i = 0; i < requests; i++) {
+            while (limit.tryAcquire()) {
+                // fill every free permit
+            }
+            limit.release(latencyNanos);
+        }
+        while (limit.getInflight() > 0) {
+            limit.release(latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package SAP1801.SWT301.AnimalUnitTest.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Map;
+
+class AdmissionControlInterceptorTest {
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimit cheapLimit;
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cheapLimit = new AdaptiveConcurrencyLimit(1, 1, 10, 2.0);
+        interceptor = new AdmissionControlInterceptor(Map.of(
+                Admission.Cost.CHEAP, cheapLimit,
+                Admission.Cost.EXPENSIVE, new AdaptiveConcurrencyLimit(1, 1, 10, 2.0)),
+                Duration.ofSeconds(2), meterRegistry);
+    }
+
+    @Test
+    void AdmissionControlInterceptor_PreHandle_Return503WithRetryAfterOverLimit() throws Exception {
+        //Arrange
+        HandlerMethod cheap = handler("cheap");
+        MockHttpServletRequest admittedRequest = new MockHttpServletRequest();
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+        interceptor.preHandle(admittedRequest, new MockHttpServletResponse(), cheap);
+
+        //Act
+        boolean admitted = interceptor.preHandle(new MockHttpServletRequest(), rejectedResponse, cheap);
+        boolean expensiveAdmitted = interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler("expensive"));
+        interceptor.afterCompletion(admittedRequest, new MockHttpServletResponse(), cheap, null);
+
+        //Assert
+        Assertions.assertFalse(admitted);
+        Assertions.assertTrue(expensiveAdmitted);
+        Assertions.assertEquals(503, rejectedResponse.getStatus());
+        Assertions.assertEquals("2", rejectedResponse.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(0, cheapLimit.getInflight());
+        Assertions.assertEquals(1.0, meterRegistry.get("animal.admission.requests").tags("class", "cheap", "outcome", "admitted").counter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("animal.admission.requests").tags("class", "cheap", "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void AdmissionControlInterceptor_PreHandle_ReturnTrueForUnlimitedHandler() throws Exception {
+        //Arrange
+        HandlerMethod unlimited = handler("unlimited");
+
+        //Act & Assert
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), unlimited));
+        }
+        Assertions.assertEquals(0, cheapLimit.getInflight());
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    static class Handlers {
+        @Admission(Admission.Cost.CHEAP)
+        public void cheap() {
+        }
+
+        @Admission(Admission.Cost.EXPENSIVE)
+        public void expensive() {
+        }
+
+        public void unlimited() {
+        }
+    }
+}
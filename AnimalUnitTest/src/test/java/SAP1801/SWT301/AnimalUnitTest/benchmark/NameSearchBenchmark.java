@@ -0,0 +1,96 @@
+package SAP1801.SWT301.AnimalUnitTest.benchmark;
+
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangedEvent;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalNameIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares name searches through {@code AnimalNameIndex} with a linear {@code contains} scan,
+ * the in-memory equivalent of {@code LIKE '%x%'}, over 1M random two-word names.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class NameSearchBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final int ITERATIONS = 200;
+
+    private static final List<String> names = new ArrayList<>(ROWS);
+    private static AnimalNameIndex index;
+
+    @BeforeAll
+    static void setUp() {
+        index = new AnimalNameIndex(Mockito.mock(AnimalRepository.class));
+        Random random = new Random(42);
+        for (int i = 1; i <= ROWS; i++) {
+            String name = word(random) + " " + word(random);
+            names.add(name.toLowerCase(Locale.ROOT));
+            index.onAnimalChanged(AnimalChangedEvent.created(new Animal((long) i, name, "Species")));
+        }
+    }
+
+    @Test
+    void NameSearch_IndexVsScan_ReportLatency() {
+        Random random = new Random(7);
+        List<String> queries = new ArrayList<>(ITERATIONS);
+        List<String> prefixes = new ArrayList<>(ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) {
+            String name = names.get(random.nextInt(ROWS));
+            int from = random.nextInt(name.length() - 4);
+            queries.add(name.substring(from, from + 4).strip());
+            prefixes.add(name.substring(0, 2));
+        }
+
+        // Warm up so the timed loops do not include JIT compilation of the index code
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < ITERATIONS; i++) {
+                index.search(queries.get(i), 0, 20);
+                index.search(prefixes.get(i), 0, 20);
+            }
+        }
+
+        long scanStart = System.nanoTime();
+        long scanMatches = 0;
+        for (String query : queries) {
+            scanMatches += names.stream().filter(name -> name.contains(query)).count();
+        }
+        double scanMillis = (System.nanoTime() - scanStart) / 1e6 / ITERATIONS;
+
+        long indexStart = System.nanoTime();
+        long indexMatches = 0;
+        for (String query : queries) {
+            indexMatches += index.search(query, 0, 20).getTotal();
+        }
+        double indexMillis = (System.nanoTime() - indexStart) / 1e6 / ITERATIONS;
+
+        long prefixStart = System.nanoTime();
+        for (String prefix : prefixes) {
+            index.search(prefix, 0, 20);
+        }
+        double prefixMillis = (System.nanoTime() - prefixStart) / 1e6 / ITERATIONS;
+
+        System.out.printf("name search over %,d names: scan %.3f ms, trigram index %.3f ms, two-letter prefix %.3f ms%n",
+                ROWS, scanMillis, indexMillis, prefixMillis);
+        Assertions.assertEquals(scanMatches, indexMatches);
+        Assertions.assertTrue(indexMillis < scanMillis);
+    }
+
+    private static String word(Random random) {
+        char[] letters = new char[4 + random.nextInt(5)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        letters[0] = Character.toUpperCase(letters[0]);
+        return new String(letters);
+    }
+}
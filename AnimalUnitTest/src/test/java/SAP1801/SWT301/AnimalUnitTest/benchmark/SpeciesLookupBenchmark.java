@@ -0,0 +1,103 @@
+package SAP1801.SWT301.AnimalUnitTest.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Compares species lookups on a 1M-row H2 table with and without the indexes declared on
+ * {@code Animal}. The table mirrors the schema Hibernate generates for the entity.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SpeciesLookupBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final int SPECIES = 1_000;
+    private static final int ITERATIONS = 50;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:species_benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table animal (id bigint primary key, name varchar(255) not null, "
+                    + "species varchar(255) not null, species_key varchar(255) generated always as (lower(species)))");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("insert into animal (id, name, species) values (?, ?, ?)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "Animal " + i);
+                insert.setString(3, "Species " + (i % SPECIES));
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void SpeciesLookup_IndexVsScan_ReportLatency() throws SQLException {
+        double exactScan = averageMillis("select * from animal where species = ?", "Species ");
+        double ignoreCaseScan = averageMillis("select * from animal where upper(species) = upper(?)", "SPECIES ");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index idx_animal_species_id on animal (species, id)");
+            statement.execute("create index idx_animal_species_key_id on animal (species_key, id)");
+        }
+
+        double exactIndex = averageMillis("select * from animal where species = ?", "Species ");
+        double ignoreCaseIndex = averageMillis("select * from animal where species_key = ?", "species ");
+
+        System.out.printf("species lookup over %,d rows (%d matches): exact scan %.2f ms, exact index %.2f ms, "
+                        + "ignore-case scan %.2f ms, ignore-case index %.2f ms%n",
+                ROWS, ROWS / SPECIES, exactScan, exactIndex, ignoreCaseScan, ignoreCaseIndex);
+        Assertions.assertTrue(exactIndex < exactScan);
+        Assertions.assertTrue(ignoreCaseIndex < ignoreCaseScan);
+    }
+
+    // H2 reuses the previous result when a query runs again with the same parameters,
+    // so every iteration looks up a different species.
+    private static double averageMillis(String sql, String speciesPrefix) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            for (int i = 0; i < 5; i++) {
+                query.setString(1, speciesPrefix + i);
+                Assertions.assertEquals(ROWS / SPECIES, drain(query));
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                query.setString(1, speciesPrefix + (100 + i));
+                drain(query);
+            }
+            return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+        }
+    }
+
+    private static int drain(PreparedStatement query) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
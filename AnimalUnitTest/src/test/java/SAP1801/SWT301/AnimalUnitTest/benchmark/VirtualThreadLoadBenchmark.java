@@ -0,0 +1,121 @@
+package SAP1801.SWT301.AnimalUnitTest.benchmark;
+
+import SAP1801.SWT301.AnimalUnitTest.AnimalUnitTestApplication;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives the same closed-loop load against the application with the default platform-thread
+ * Tomcat and with the {@code virtual} profile, and reports throughput and tail latency.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+    private static final int ROWS = 10_000;
+    private static final int CLIENTS = 500;
+    private static final int REQUESTS_PER_CLIENT = 40;
+
+    @Test
+    void VirtualThreads_CompareWithPlatformThreads_ReportThroughputAndLatency() throws Exception {
+        Result platform = run();
+        Result virtual = run("virtual");
+
+        System.out.println("platform threads: " + platform);
+        System.out.println("virtual threads:  " + virtual);
+        Assertions.assertEquals(0, platform.failures());
+        Assertions.assertEquals(0, virtual.failures());
+    }
+
+    private static Result run(String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AnimalUnitTestApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID(),
+                        "logging.level.root=warn")
+                // Compares thread models, so the limiter must not turn queued requests into 503s. Passed as
+                // arguments because application.properties overrides the builder's default properties
+                .run("--animal.admission.enabled=false", "--spring.cache.type=none")) {
+            long[] ids = seed(context.getBean(AnimalService.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return load(port, ids);
+        }
+    }
+
+    private static long[] seed(AnimalService animalService) {
+        List<AnimalDto> animals = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            animals.add(new AnimalDto("Animal " + i, "Species " + (i % 100)));
+        }
+        return animalService.createAnimals(animals).getCreated().stream().mapToLong(Animal::getId).toArray();
+    }
+
+    private static Result load(int port, long[] ids) throws Exception {
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/animals?limit=50&after=" + id)).build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            return new Result(latencies.length * 1_000_000_000.0 / elapsed,
+                    percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99), failures.get());
+        }
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000.0;
+    }
+
+    private record Result(double requestsPerSecond, double p50Millis, double p99Millis, int failures) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.2f ms, p99 %.2f ms, %d failures",
+                    requestsPerSecond, p50Millis, p99Millis, failures);
+        }
+    }
+}
@@ -1,10 +1,27 @@
 package SAP1801.SWT301.AnimalUnitTest.controller;
 
+import SAP1801.SWT301.AnimalUnitTest.converter.AnimalColumnarHttpMessageConverter;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchError;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalChange;
 import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalImportResult;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalIngestStatus;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalSearchPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangeFeed;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalImportInProgressException;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalIngestRejectedException;
 import SAP1801.SWT301.AnimalUnitTest.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalVersionConflictException;
 import SAP1801.SWT301.AnimalUnitTest.model.Animal;
 import SAP1801.SWT301.AnimalUnitTest.service.AnimalService;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalCsvImporter;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalIngestQueue;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,18 +30,24 @@ import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = AnimalController.class)
@@ -36,6 +59,12 @@ class AnimalControllerTest {
     @MockBean
     private AnimalService animalService;
 
+    @MockBean
+    private AnimalCsvImporter csvImporter;
+
+    @MockBean
+    private AnimalIngestQueue ingestQueue;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -55,6 +84,8 @@ class AnimalControllerTest {
 
         animalDto = new AnimalDto("Elephant", "Loxodonta");
         updatedAnimalDto = new AnimalDto("Updated Lion", "Updated Panthera leo");
+
+        given(animalService.getCollectionTag()).willReturn(Optional.of("lq7x2k-3"));
     }
 
 
@@ -188,4 +219,434 @@ class AnimalControllerTest {
                 .andExpect(jsonPath("$.species").value(updatedAnimalDto.getSpecies()));
         verify(animalService, times(1)).updateAnimal(eq(2L), any(AnimalDto.class));
     }
+
+    @Test
+    public void AnimalController_GetAnimalPageWithZeroLimit_ReturnBadRequest() throws Exception {
+        //Arrange
+        given(animalService.getAnimalPage(null, 0)).willThrow(new IllegalArgumentException("Limit must be positive"));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals").param("limit", "0"));
+
+        //Assert
+        response.andExpect(status().isBadRequest())
+                .andExpect(content().string("Limit must be positive"));
+    }
+
+    @Test
+    public void AnimalController_GetAnimalPageBySpeciesWithNegativeLimit_ReturnBadRequest() throws Exception {
+        //Arrange
+        given(animalService.getAnimalPageBySpecies("Panthera leo", null, -5))
+                .willThrow(new IllegalArgumentException("Limit must be positive"));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/species/Panthera leo").param("limit", "-5"));
+
+        //Assert
+        response.andExpect(status().isBadRequest())
+                .andExpect(content().string("Limit must be positive"));
+    }
+
+    @Test
+    public void AnimalController_GetAnimalPage_ReturnAnimalPage() throws Exception {
+        //Arrange
+        when(animalService.getAnimalPage(1L, 2)).thenReturn(new AnimalPage(List.of(lion, lioness), lioness.getId()));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals").param("after", "1").param("limit", "2"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].name").value(lion.getName()))
+                .andExpect(jsonPath("$.nextCursor").value(Matchers.equalTo(3)));
+        verify(animalService, times(1)).getAnimalPage(1L, 2);
+        verify(animalService, never()).getAllAnimals();
+    }
+
+    @Test
+    public void AnimalController_GetAnimalPageBySpecies_ReturnAnimalPage() throws Exception {
+        //Arrange
+        String species = "Panthera leo";
+        when(animalService.getAnimalPageBySpecies(species, null, 50)).thenReturn(new AnimalPage(List.of(lion, lioness), null));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/species/" + species).param("limit", "50"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        verify(animalService, times(1)).getAnimalPageBySpecies(species, null, 50);
+    }
+
+    @Test
+    public void AnimalController_ExportAnimals_ReturnNdjson() throws Exception {
+        //Arrange
+        doAnswer(invocation -> {
+            Consumer<Animal> consumer = invocation.getArgument(0);
+            consumer.accept(elephant);
+            consumer.accept(tiger);
+            return null;
+        }).when(animalService).exportAnimals(any());
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/export"))
+                .andExpect(request().asyncStarted());
+
+        //Assert
+        mockMvc.perform(asyncDispatch(response.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(elephant) + "\n"
+                        + objectMapper.writeValueAsString(tiger) + "\n"));
+        verify(animalService, times(1)).exportAnimals(any());
+    }
+
+    @Test
+    public void AnimalController_CreateAnimals_ReturnAnimalBatchResult() throws Exception {
+        //Arrange
+        List<AnimalDto> animalDtos = List.of(animalDto, new AnimalDto(null, "Panthera leo"));
+        when(animalService.createAnimals(ArgumentMatchers.any()))
+                .thenReturn(new AnimalBatchResult(List.of(elephant), List.of(new AnimalBatchError(1, "Name must not be blank"))));
+
+        //Act
+        ResultActions response = mockMvc.perform(post("/animals/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(animalDtos)));
+
+        //Assert
+        response.andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created.length()").value(1))
+                .andExpect(jsonPath("$.created[0].name").value(elephant.getName()))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value("Name must not be blank"));
+        verify(animalService, times(1)).createAnimals(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void AnimalController_GetAnimalBySpeciesIgnoreCase_ReturnAnimalList() throws Exception {
+        //Arrange
+        String species = "panthera LEO";
+        when(animalService.getAnimalBySpeciesIgnoreCase(species)).thenReturn(List.of(lion, lioness));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/species/" + species).param("ignoreCase", "true"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].speciesKey").doesNotExist());
+        verify(animalService, times(1)).getAnimalBySpeciesIgnoreCase(species);
+        verify(animalService, never()).getAnimalBySpecies(any());
+    }
+
+    @Test
+    public void AnimalController_GetAnimalById_ReturnETag() throws Exception {
+        //Arrange
+        tiger.setVersion(2L);
+        when(animalService.getAnimalById(4L)).thenReturn(tiger);
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/4"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    public void AnimalController_GetAnimalById_ReturnNotModified() throws Exception {
+        //Arrange
+        tiger.setVersion(2L);
+        when(animalService.getAnimalById(4L)).thenReturn(tiger);
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/4").header(HttpHeaders.IF_NONE_MATCH, "\"2\""));
+
+        //Assert
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void AnimalController_GetAllAnimals_ReturnNotModified() throws Exception {
+        //Arrange
+        String eTag = "W/\"lq7x2k-3\"";
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals").header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        //Assert
+        response.andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        verify(animalService, never()).getAllAnimals();
+    }
+
+    @Test
+    public void AnimalController_GetAllAnimalsWithoutCollectionTag_ReturnAnimalList() throws Exception {
+        //Arrange
+        given(animalService.getCollectionTag()).willReturn(Optional.empty());
+        when(animalService.getAllAnimals()).thenReturn(List.of(elephant));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals").header(HttpHeaders.IF_NONE_MATCH, "W/\"lq7x2k-3\""));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.length()").value(1));
+        verify(animalService, times(1)).getAllAnimals();
+    }
+
+    @Test
+    public void AnimalController_UpdateAnimalWithIfMatch_ReturnAnimal() throws Exception {
+        //Arrange
+        given(animalService.updateAnimal(eq(2L), any(AnimalDto.class), eq(5L))).willAnswer(invocation -> {
+            AnimalDto dto = invocation.getArgument(1, AnimalDto.class);
+            return new Animal(2L, dto.getName(), dto.getSpecies(), 6L, null);
+        });
+
+        //Act
+        ResultActions response = mockMvc.perform(put("/animals/2")
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedAnimalDto)));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"6\""));
+        verify(animalService, never()).updateAnimal(eq(2L), any(AnimalDto.class));
+    }
+
+    @Test
+    public void AnimalController_UpdateAnimalWithIfMatch_ReturnPreconditionFailed() throws Exception {
+        //Arrange
+        given(animalService.updateAnimal(eq(2L), any(AnimalDto.class), eq(5L)))
+                .willThrow(new AnimalVersionConflictException("Animal was modified by another request"));
+
+        //Act
+        ResultActions stale = mockMvc.perform(put("/animals/2")
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedAnimalDto)));
+        ResultActions weak = mockMvc.perform(put("/animals/2")
+                .header(HttpHeaders.IF_MATCH, "W/\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedAnimalDto)));
+
+        //Assert
+        stale.andExpect(status().isPreconditionFailed());
+        weak.andExpect(status().isPreconditionFailed());
+        verify(animalService, times(1)).updateAnimal(eq(2L), any(AnimalDto.class), eq(5L));
+    }
+
+    @Test
+    public void AnimalController_GetAnimalsByIds_ReturnAnimalList() throws Exception {
+        //Arrange
+        when(animalService.getAnimalsByIds(List.of(4L, 1L))).thenReturn(List.of(tiger, elephant));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals").param("ids", "4,1"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[1].id").value(1));
+        verify(animalService, times(1)).getAnimalsByIds(List.of(4L, 1L));
+        verify(animalService, never()).getAllAnimals();
+    }
+
+    @Test
+    public void AnimalController_GetAnimalPageWithIds_ReturnAnimalPage() throws Exception {
+        //Arrange
+        when(animalService.getAnimalPage(null, 2)).thenReturn(new AnimalPage(List.of(elephant, lion), lion.getId()));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals").param("ids", "4,1").param("limit", "2"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(Matchers.equalTo(2)));
+        verify(animalService, times(1)).getAnimalPage(null, 2);
+        verify(animalService, never()).getAnimalsByIds(any());
+    }
+
+    @Test
+    public void AnimalController_GetSpeciesStats_ReturnSpeciesCountList() throws Exception {
+        //Arrange
+        when(animalService.getSpeciesStats()).thenReturn(List.of(new SpeciesCount("Loxodonta", 1), new SpeciesCount("Panthera leo", 2)));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/species/stats"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].species").value("Panthera leo"))
+                .andExpect(jsonPath("$[1].count").value(2));
+        verify(animalService, never()).getAnimalBySpecies(any());
+    }
+
+    @Test
+    public void AnimalController_SearchAnimals_ReturnAnimalSearchPage() throws Exception {
+        //Arrange
+        when(animalService.searchAnimals("lion", 0, 20)).thenReturn(new AnimalSearchPage(List.of(2L, 3L), 2, null));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/search").param("q", "lion"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids[0]").value(2))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.nextOffset").doesNotExist());
+        verify(animalService, never()).getAnimalById(any());
+    }
+
+    @Test
+    public void AnimalController_SubmitAnimal_ReturnAccepted() throws Exception {
+        //Arrange
+        given(ingestQueue.submit(any(AnimalDto.class)))
+                .willReturn(new AnimalIngestStatus("token-1", AnimalIngestStatus.State.PENDING, null, null));
+
+        //Act
+        ResultActions response = mockMvc.perform(post("/animals").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(animalDto)));
+
+        //Assert
+        response.andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/animals/ingest/token-1"))
+                .andExpect(jsonPath("$.state").value("PENDING"));
+        verify(animalService, never()).createAnimal(any());
+    }
+
+    @Test
+    public void AnimalController_SubmitAnimal_ReturnTooManyRequests() throws Exception {
+        //Arrange
+        given(ingestQueue.submit(any(AnimalDto.class))).willThrow(new AnimalIngestRejectedException("Ingest queue is full"));
+
+        //Act
+        ResultActions response = mockMvc.perform(post("/animals").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(animalDto)));
+
+        //Assert
+        response.andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    public void AnimalController_ImportAnimals_ReturnImportResult() throws Exception {
+        //Arrange
+        when(csvImporter.importFile("animals.csv")).thenReturn(new AnimalImportResult("animals.csv", 3, 0, 12, 250, List.of()));
+
+        //Act
+        ResultActions response = mockMvc.perform(post("/animals/import").param("file", "animals.csv"));
+
+        //Assert
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3));
+        verify(csvImporter, times(1)).importFile("animals.csv");
+    }
+
+    @Test
+    public void AnimalController_ImportAnimals_ReturnConflict() throws Exception {
+        //Arrange
+        given(csvImporter.importFile("animals.csv")).willThrow(new AnimalImportInProgressException("An import is already running"));
+
+        //Act
+        ResultActions response = mockMvc.perform(post("/animals/import").param("file", "animals.csv"));
+
+        //Assert
+        response.andExpect(status().isConflict())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void AnimalController_GetIngestStatus_ReturnNotFound() throws Exception {
+        //Arrange
+        when(ingestQueue.status("expired")).thenReturn(Optional.empty());
+        when(ingestQueue.status("token-1"))
+                .thenReturn(Optional.of(new AnimalIngestStatus("token-1", AnimalIngestStatus.State.CREATED, 7L, null)));
+
+        //Act
+        ResultActions expired = mockMvc.perform(get("/animals/ingest/expired"));
+        ResultActions created = mockMvc.perform(get("/animals/ingest/token-1"));
+
+        //Assert
+        expired.andExpect(status().isNotFound());
+        created.andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7));
+    }
+
+    @Test
+    public void AnimalController_StreamChanges_ReturnServerSentEvents() throws Exception {
+        //Arrange
+        given(animalService.subscribeToChanges(eq("lq7x2k-4"), any())).willAnswer(invocation -> {
+            AnimalChangeFeed.Sink sink = invocation.getArgument(1, AnimalChangeFeed.Sink.class);
+            sink.send(new AnimalChange("lq7x2k-5", "updated", 2L, lion));
+            sink.close();
+            return mock(AnimalChangeFeed.Subscription.class);
+        });
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/changes").header("Last-Event-ID", "lq7x2k-4"));
+
+        //Assert
+        response.andExpect(request().asyncStarted());
+        mockMvc.perform(asyncDispatch(response.andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(CoreMatchers.containsString("id:lq7x2k-5")))
+                .andExpect(content().string(CoreMatchers.containsString("event:updated")));
+    }
+
+    @Test
+    public void AnimalController_GetAllAnimalsAsCbor_ReturnAnimalList() throws Exception {
+        //Arrange
+        when(animalService.getAllAnimals()).thenReturn(List.of(elephant, lion));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals").accept(MediaType.parseMediaType("application/cbor")));
+
+        //Assert
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string(HttpHeaders.VARY, CoreMatchers.containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+        Animal[] animals = new CBORMapper().readValue(body, Animal[].class);
+        Assertions.assertThat(animals).containsExactly(elephant, lion);
+    }
+
+    @Test
+    public void AnimalController_GetAllAnimalsAsColumnar_ReturnAnimalList() throws Exception {
+        //Arrange
+        when(animalService.getAllAnimals()).thenReturn(List.of(elephant, lion));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals").accept(AnimalColumnarHttpMessageConverter.MEDIA_TYPE));
+
+        //Assert
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(AnimalColumnarHttpMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assertions.assertThat(AnimalColumnarHttpMessageConverter.decode(body)).containsExactly(elephant, lion);
+    }
+
+    @Test
+    public void AnimalController_GetSpeciesStatsAsColumnar_ReturnNotAcceptable() throws Exception {
+        //Arrange
+        when(animalService.getSpeciesStats()).thenReturn(List.of(new SpeciesCount("Loxodonta", 1)));
+
+        //Act
+        ResultActions response = mockMvc.perform(get("/animals/species/stats").accept(AnimalColumnarHttpMessageConverter.MEDIA_TYPE));
+
+        //Assert
+        response.andExpect(status().isNotAcceptable());
+    }
 }
@@ -0,0 +1,63 @@
+package SAP1801.SWT301.AnimalUnitTest.converter;
+
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class AnimalColumnarHttpMessageConverterTest {
+
+    @Test
+    void AnimalColumnarHttpMessageConverter_Decode_ReturnEncodedAnimals() {
+        //Arrange
+        List<Animal> animals = List.of(
+                new Animal(900L, "Tiger", "Panthera tigris", 4L, null),
+                new Animal(2L, "Lion", "Panthera leo"),
+                new Animal(3L, "Löwin 🦁", "Panthera leo", 0L, null),
+                new Animal(Long.MAX_VALUE, null, null));
+
+        //Act
+        List<Animal> decoded = AnimalColumnarHttpMessageConverter.decode(AnimalColumnarHttpMessageConverter.encode(animals));
+
+        //Assert
+        Assertions.assertEquals(animals, decoded);
+    }
+
+    @Test
+    void AnimalColumnarHttpMessageConverter_Encode_ReturnSmallerPayloadThanJsonFields() {
+        //Arrange
+        List<Animal> animals = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            animals.add(new Animal(id, "Animal " + id, id % 2 == 0 ? "Panthera leo" : "Loxodonta", 0L, null));
+        }
+
+        //Act
+        byte[] encoded = AnimalColumnarHttpMessageConverter.encode(animals);
+
+        //Assert
+        // One byte each for id and version, the name with its length, and one byte of species index
+        Assertions.assertTrue(encoded.length < 1000 * 14, "encoded size " + encoded.length);
+    }
+
+    @Test
+    void AnimalColumnarHttpMessageConverter_Decode_ThrowsForTruncatedPayload() {
+        //Arrange
+        byte[] encoded = AnimalColumnarHttpMessageConverter.encode(List.of(new Animal(1L, "Elephant", "Loxodonta")));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        byte[] hugeCount = {'A', 'N', 'C', '1', (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x7F};
+
+        //Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AnimalColumnarHttpMessageConverter.decode(truncated));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> AnimalColumnarHttpMessageConverter.decode(hugeCount));
+    }
+
+    @Test
+    void AnimalColumnarHttpMessageConverter_Encode_ThrowsForUnsavedAnimal() {
+        //Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AnimalColumnarHttpMessageConverter.encode(List.of(new Animal(null, "Elephant", "Loxodonta"))));
+    }
+}
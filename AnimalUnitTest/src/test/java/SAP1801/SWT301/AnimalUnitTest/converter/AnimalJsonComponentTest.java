@@ -0,0 +1,66 @@
+package SAP1801.SWT301.AnimalUnitTest.converter;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+class AnimalJsonComponentTest {
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper leanMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(AnimalJsonComponent.module()).build();
+
+    @Test
+    void AnimalJsonComponent_Serialize_ReturnSameJsonAsDefaultMapping() throws Exception {
+        //Arrange
+        List<Animal> animals = List.of(
+                new Animal(1L, "Elephant", "Loxodonta", 3L, "loxodonta"),
+                new Animal(2L, "Löwe \"Leo\" 🦁", "Panthera leo"),
+                new Animal(null, null, null));
+        AnimalDto animalDto = new AnimalDto("Tiger", null);
+
+        //Act
+        String lean = leanMapper.writeValueAsString(animals);
+        String leanDto = leanMapper.writeValueAsString(animalDto);
+
+        //Assert
+        Assertions.assertEquals(defaultMapper.writeValueAsString(animals), lean);
+        Assertions.assertEquals(defaultMapper.writeValueAsString(animalDto), leanDto);
+    }
+
+    @Test
+    void AnimalJsonComponent_Deserialize_ReturnAnimalDtos() throws Exception {
+        //Arrange
+        String json = "[{\"name\":\"Elephant\",\"species\":\"Loxodonta\"},"
+                + "{\"id\":7,\"tags\":[\"a\",{\"b\":1}],\"species\":\"Panthera leo\",\"name\":null},"
+                + "{\"name\":42,\"species\":true},{}]";
+
+        //Act
+        List<AnimalDto> animalDtos = leanMapper.readValue(json, new TypeReference<>() {
+        });
+
+        //Assert
+        Assertions.assertEquals(List.of(new AnimalDto("Elephant", "Loxodonta"), new AnimalDto(null, "Panthera leo"),
+                new AnimalDto("42", "true"), new AnimalDto()), animalDtos);
+    }
+
+    @Test
+    void AnimalJsonComponent_Deserialize_ThrowForMismatchedInput() {
+        //Arrange
+        ObjectMapper strictMapper = leanMapper.copy().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        //Act & Assert
+        Assertions.assertThrows(MismatchedInputException.class,
+                () -> leanMapper.readValue("{\"name\":{\"first\":\"Ele\"}}", AnimalDto.class));
+        Assertions.assertThrows(MismatchedInputException.class, () -> leanMapper.readValue("[1]", AnimalDto.class));
+        Assertions.assertThrows(UnrecognizedPropertyException.class,
+                () -> strictMapper.readValue("{\"name\":\"Elephant\",\"age\":3}", AnimalDto.class));
+    }
+}
@@ -0,0 +1,111 @@
+package SAP1801.SWT301.AnimalUnitTest.datasource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+// Two separate in-memory H2 databases stand in for the primary and the replica; each holds one
+// row naming itself, so a read shows which one served it.
+class ReplicaRoutingDataSourceTest {
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @Test
+    void ReplicaRoutingDataSource_ReadOnlyTransaction_ReturnReplicaConnection() {
+        //Arrange
+        Routing routing = new Routing(replica, Duration.ZERO, Duration.ofSeconds(10));
+
+        //Act
+        String readOnly = routing.read();
+        String readWrite = routing.readInWriteTransaction();
+
+        //Assert
+        Assertions.assertEquals("replica", readOnly);
+        Assertions.assertEquals("primary", readWrite);
+    }
+
+    @Test
+    void ReplicaRoutingDataSource_ReadAfterWrite_ReturnPrimaryWithinMaxLag() throws Exception {
+        //Arrange
+        Routing routing = new Routing(replica, Duration.ofMillis(300), Duration.ofSeconds(10));
+        Thread.sleep(300);
+        Assertions.assertEquals("replica", routing.read());
+
+        //Act
+        routing.write();
+        String justAfterWrite = routing.read();
+        Thread.sleep(300);
+        String afterLag = routing.read();
+
+        //Assert
+        Assertions.assertEquals("primary", justAfterWrite);
+        Assertions.assertEquals("replica", afterLag);
+    }
+
+    @Test
+    void ReplicaRoutingDataSource_ReplicaUnavailable_ReturnPrimaryConnection() {
+        //Arrange
+        DriverManagerDataSource broken = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", "");
+        Routing routing = new Routing(broken, Duration.ZERO, Duration.ofSeconds(10));
+
+        //Act
+        String first = routing.read();
+        String second = routing.read();
+
+        //Assert
+        Assertions.assertEquals("primary", first);
+        Assertions.assertEquals("primary", second);
+    }
+
+    private static DataSource database(String role) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + role + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table role (name varchar(16))");
+        jdbcTemplate.update("insert into role values (?)", role);
+        return dataSource;
+    }
+
+    private class Routing {
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readOnly;
+        private final TransactionTemplate readWrite;
+
+        Routing(DataSource replica, Duration maxLag, Duration retryAfter) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(
+                    new ReplicaRoutingDataSource(primary, replica, maxLag, retryAfter));
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readWrite = new TransactionTemplate(transactionManager);
+        }
+
+        String read() {
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("select name from role", String.class));
+        }
+
+        String readInWriteTransaction() {
+            return readWrite.execute(status -> jdbcTemplate.queryForObject("select name from role", String.class));
+        }
+
+        void write() {
+            readWrite.executeWithoutResult(status -> jdbcTemplate.update("update role set name = name"));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package SAP1801.SWT301.AnimalUnitTest.event;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalChange;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class AnimalChangeFeedTest {
+    private AnimalChangeFeed changeFeed;
+    private Animal lion;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new AnimalChangeFeed(4, 2, Duration.ofSeconds(30));
+        lion = new Animal(3L, "Lion", "Panthera leo");
+    }
+
+    @Test
+    void AnimalChangeFeed_Subscribe_ReturnMissedChangesAfterLastEventId() throws Exception {
+        //Arrange
+        RecordingSink first = new RecordingSink(1);
+        AnimalChangeFeed.Subscription subscription = changeFeed.subscribe(null, first);
+        changeFeed.onAnimalChanged(AnimalChangedEvent.created(lion));
+        Assertions.assertTrue(first.awaitChanges());
+        subscription.cancel();
+        changeFeed.onAnimalChanged(AnimalChangedEvent.updated(lion, "Panthera leo"));
+        changeFeed.onAnimalChanged(AnimalChangedEvent.deleted(3L, "Panthera leo"));
+
+        //Act
+        RecordingSink resumed = new RecordingSink(2);
+        changeFeed.subscribe(first.changes.getFirst().getEventId(), resumed);
+
+        //Assert
+        Assertions.assertTrue(resumed.awaitChanges());
+        Assertions.assertEquals(List.of("updated", "deleted"), resumed.changes.stream().map(AnimalChange::getType).toList());
+        Assertions.assertFalse(resumed.reset);
+    }
+
+    @Test
+    void AnimalChangeFeed_Subscribe_ReturnResetForUnknownEventId() throws Exception {
+        //Arrange
+        for (int i = 0; i < 6; i++) {
+            changeFeed.onAnimalChanged(AnimalChangedEvent.created(lion));
+        }
+        RecordingSink sink = new RecordingSink(0);
+
+        //Act
+        changeFeed.subscribe("stale-1", sink);
+
+        //Assert
+        Assertions.assertTrue(sink.resetLatch.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(sink.changes.isEmpty());
+    }
+
+    @Test
+    void AnimalChangeFeed_OnAnimalChanged_CloseOverflowingSubscriber() throws Exception {
+        //Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(4) {
+            @Override
+            public void send(AnimalChange change) {
+                awaitQuietly(release);
+                super.send(change);
+            }
+        };
+        changeFeed.subscribe(null, slow);
+
+        //Act
+        for (int i = 0; i < 4; i++) {
+            changeFeed.onAnimalChanged(AnimalChangedEvent.created(lion));
+        }
+        release.countDown();
+
+        //Assert
+        Assertions.assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, changeFeed.subscriberCount());
+        Assertions.assertTrue(slow.changes.size() < 4);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSink implements AnimalChangeFeed.Sink {
+        final List<AnimalChange> changes = new CopyOnWriteArrayList<>();
+        final CountDownLatch received;
+        final CountDownLatch resetLatch = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        volatile boolean reset;
+
+        RecordingSink(int expected) {
+            received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(AnimalChange change) {
+            changes.add(change);
+            received.countDown();
+        }
+
+        @Override
+        public void reset() {
+            reset = true;
+            resetLatch.countDown();
+        }
+
+        @Override
+        public void keepAlive() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        boolean awaitChanges() throws InterruptedException {
+            return received.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package SAP1801.SWT301.AnimalUnitTest.metrics;
+
+import SAP1801.SWT301.AnimalUnitTest.config.CacheConfig;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void Metrics_CreateAndGetAnimal_RecordServiceTimersAndQueryCounts() throws Exception {
+        //Act
+        mockMvc.perform(post("/animals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AnimalDto("Elephant", "Loxodonta"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/animals")).andExpect(status().isOk());
+
+        //Assert
+        Timer createTimer = meterRegistry.find("animal.service").tag("method", "createAnimal").timer();
+        Assertions.assertNotNull(createTimer);
+        Assertions.assertTrue(createTimer.count() >= 1);
+        DistributionSummary queries = meterRegistry.find(QueryCountInterceptor.METRIC_NAME)
+                .tag("uri", "/animals").tag("method", "GET").summary();
+        Assertions.assertNotNull(queries);
+        Assertions.assertTrue(queries.totalAmount() >= 1);
+        Assertions.assertNotNull(meterRegistry.find("hibernate.statements").functionCounter());
+        Assertions.assertNotNull(meterRegistry.find("hikaricp.connections").gauge());
+    }
+
+    @Test
+    void Metrics_GetUnknownAnimal_CountAnimalNotFoundException() throws Exception {
+        //Act
+        mockMvc.perform(get("/animals/987654")).andExpect(status().isNotFound());
+
+        //Assert
+        Counter failures = meterRegistry.find("animal.service.failures")
+                .tag("method", "getAnimalById")
+                .tag("exception", "AnimalNotFoundException")
+                .counter();
+        Assertions.assertNotNull(failures);
+        Assertions.assertTrue(failures.count() >= 1);
+    }
+
+    @Test
+    void Metrics_GetAnimalById_CountCoalescedLookup() throws Exception {
+        //Arrange
+        String body = mockMvc.perform(post("/animals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AnimalDto("Lion", "Panthera leo"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readValue(body, Animal.class).getId();
+        cacheManager.getCache(CacheConfig.ANIMAL_CACHE).clear();
+        entityManagerFactory.getCache().evictAll();
+
+        //Act
+        mockMvc.perform(get("/animals/" + id)).andExpect(status().isOk());
+
+        //Assert
+        // The lookup runs on the coalescer's loader thread and still counts toward this request
+        DistributionSummary queries = meterRegistry.find(QueryCountInterceptor.METRIC_NAME)
+                .tag("uri", "/animals/{id}").tag("method", "GET").summary();
+        Assertions.assertNotNull(queries);
+        Assertions.assertTrue(queries.max() >= 1);
+    }
+}
@@ -1,6 +1,11 @@
 package SAP1801.SWT301.AnimalUnitTest.repository;
 
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
 import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 
 import org.junit.jupiter.api.Test;
@@ -8,20 +13,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @DataJpaTest
 //@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
 public class AnimalRepositoryTest {
     private final AnimalRepository animalRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
 
     @Autowired
-    public AnimalRepositoryTest(AnimalRepository animalRepository) {
+    public AnimalRepositoryTest(AnimalRepository animalRepository, EntityManagerFactory entityManagerFactory,
+                                PlatformTransactionManager transactionManager, EntityManager entityManager) {
         this.animalRepository = animalRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionManager = transactionManager;
+        this.entityManager = entityManager;
     }
 
     @Test
@@ -86,5 +104,177 @@ public class AnimalRepositoryTest {
         Assertions.assertFalse(animals.isEmpty());
         Assertions.assertTrue(animals.size() > 1);
     }
-}
 
+    @Test
+    void AnimalRepository_FindByIdGreaterThan_ReturnOrderedAnimalList() {
+        //Arrange
+        Animal first = animalRepository.save(new Animal(null, "Elephant", "Loxodonta"));
+        Animal second = animalRepository.save(new Animal(null, "Lion", "Panthera leo"));
+        Animal third = animalRepository.save(new Animal(null, "Tiger", "Panthera tigris"));
+
+        //Act
+        List<Animal> animals = animalRepository.findByIdGreaterThanOrderByIdAsc(first.getId(), Limit.of(2));
+
+        //Assert
+        Assertions.assertEquals(List.of(second.getId(), third.getId()), animals.stream().map(Animal::getId).toList());
+    }
+
+    @Test
+    void AnimalRepository_FindBySpeciesAndIdGreaterThan_ReturnAnimalList() {
+        //Arrange
+        Animal lion = animalRepository.save(new Animal(null, "Lion", "Panthera leo"));
+        animalRepository.save(new Animal(null, "Tiger", "Panthera tigris"));
+        Animal lioness = animalRepository.save(new Animal(null, "Lioness", "Panthera leo"));
+
+        //Act
+        List<Animal> animals = animalRepository.findBySpeciesAndIdGreaterThanOrderByIdAsc("Panthera leo", lion.getId(), Limit.of(10));
+
+        //Assert
+        Assertions.assertEquals(1, animals.size());
+        Assertions.assertEquals(lioness.getId(), animals.getFirst().getId());
+    }
+
+    @Test
+    void AnimalRepository_StreamAllByOrderByIdAsc_ReturnAnimalStream() {
+        //Arrange
+        Animal lion = animalRepository.save(new Animal(null, "Lion", "Panthera leo"));
+        Animal tiger = animalRepository.save(new Animal(null, "Tiger", "Panthera tigris"));
+
+        //Act
+        List<Long> ids;
+        try (Stream<Animal> animals = animalRepository.streamAllByOrderByIdAsc()) {
+            ids = animals.map(Animal::getId).toList();
+        }
+
+        //Assert
+        Assertions.assertEquals(List.of(lion.getId(), tiger.getId()), ids);
+    }
+
+    @Test
+    void AnimalRepository_DeleteAnimalReturningPrevious_ReturnPreviousRevision() {
+        //Arrange
+        Animal animal = animalRepository.save(new Animal(null, "Wolf", "Canis lupus"));
+
+        //Act
+        Optional<AnimalRevision> deleted = animalRepository.deleteAnimalReturningPrevious(animal.getId());
+        Optional<AnimalRevision> deletedAgain = animalRepository.deleteAnimalReturningPrevious(animal.getId());
+
+        //Assert
+        Assertions.assertEquals(Optional.of(new AnimalRevision("Canis lupus", 0L)), deleted);
+        Assertions.assertTrue(deletedAgain.isEmpty());
+        Assertions.assertTrue(animalRepository.findById(animal.getId()).isEmpty());
+    }
+
+    @Test
+    void AnimalRepository_UpdateAnimalReturningPrevious_ReturnPreviousRevision() {
+        //Arrange
+        Animal animal = animalRepository.save(new Animal(null, "Lion", "Panthera leo"));
+
+        //Act
+        Optional<AnimalRevision> previous = animalRepository.updateAnimalReturningPrevious(animal.getId(), "Updated Lion", "Updated Panthera leo");
+        Optional<AnimalRevision> missing = animalRepository.updateAnimalReturningPrevious(-1L, "Ghost", "Unknown");
+
+        //Assert
+        Assertions.assertEquals(Optional.of(new AnimalRevision("Panthera leo", 0L)), previous);
+        Assertions.assertTrue(missing.isEmpty());
+        Animal found = animalRepository.findById(animal.getId()).orElseThrow();
+        Assertions.assertEquals("Updated Lion", found.getName());
+        Assertions.assertEquals("Updated Panthera leo", found.getSpecies());
+        Assertions.assertEquals("updated panthera leo", found.getSpeciesKey());
+        Assertions.assertEquals(1L, found.getVersion());
+    }
+
+    @Test
+    void AnimalRepository_UpdateAnimalReturningPreviousWithVersion_ReturnPreviousRevisionForNullVersion() {
+        //Arrange
+        Animal animal = animalRepository.saveAndFlush(new Animal(null, "Lion", "Panthera leo"));
+        entityManager.createNativeQuery("update animal set version = null where id = :id")
+                .setParameter("id", animal.getId())
+                .executeUpdate();
+
+        //Act
+        Optional<AnimalRevision> updated = animalRepository.updateAnimalReturningPrevious(animal.getId(), 0L, "Lioness", "Panthera tigris");
+        Optional<AnimalRevision> stale = animalRepository.updateAnimalReturningPrevious(animal.getId(), 0L, "Lion", "Panthera leo");
+        Optional<AnimalRevision> previous = animalRepository.updateAnimalReturningPrevious(animal.getId(), "Lion", "Panthera leo");
+
+        //Assert
+        Assertions.assertEquals(Optional.of(new AnimalRevision("Panthera leo", 0L)), updated);
+        Assertions.assertTrue(stale.isEmpty());
+        Assertions.assertEquals(Optional.of(new AnimalRevision("Panthera tigris", 1L)), previous);
+    }
+
+    @Test
+    void AnimalRepository_FindBySpeciesKey_ReturnAnimalList() {
+        //Arrange
+        animalRepository.save(new Animal(null, "Lion", "Panthera leo"));
+        animalRepository.save(new Animal(null, "Lioness", "PANTHERA LEO"));
+        animalRepository.save(new Animal(null, "Tiger", "Panthera tigris"));
+
+        //Act
+        List<Animal> animals = animalRepository.findBySpeciesKey("panthera leo");
+
+        //Assert
+        Assertions.assertEquals(2, animals.size());
+    }
+
+    @Test
+    void AnimalRepository_FindIdsAfter_ReturnOrderedIdList() {
+        //Arrange
+        Animal first = animalRepository.save(new Animal(null, "Elephant", "Loxodonta"));
+        Animal second = animalRepository.save(new Animal(null, "Lion", "Panthera leo"));
+        Animal third = animalRepository.save(new Animal(null, "Tiger", "Panthera tigris"));
+
+        //Act
+        List<Long> ids = animalRepository.findIdsAfter(first.getId(), Limit.of(10));
+
+        //Assert
+        Assertions.assertEquals(List.of(second.getId(), third.getId()), ids);
+    }
+
+    @Test
+    void AnimalRepository_CountBySpecies_ReturnSpeciesCountList() {
+        //Arrange
+        animalRepository.save(new Animal(null, "Lion", "Panthera leo"));
+        animalRepository.save(new Animal(null, "Lioness", "Panthera leo"));
+        animalRepository.save(new Animal(null, "Tiger", "Panthera tigris"));
+
+        //Act
+        List<SpeciesCount> counts = animalRepository.countBySpecies();
+
+        //Assert
+        Assertions.assertEquals(2, counts.size());
+        Assertions.assertTrue(counts.contains(new SpeciesCount("Panthera leo", 2)));
+        Assertions.assertTrue(counts.contains(new SpeciesCount("Panthera tigris", 1)));
+    }
+
+    // Runs outside the test transaction: cached entries only become visible once their writes commit
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void AnimalRepository_FindBySpeciesAndById_ReturnCachedResultUntilNextWrite() {
+        //Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Animal lion = animalRepository.save(new Animal(null, "Lion", "Panthera leo"));
+        try {
+            animalRepository.findBySpecies("Panthera leo");
+            statistics.clear();
+
+            //Act
+            List<Animal> cached = animalRepository.findBySpecies("Panthera leo");
+            Optional<Animal> byId = animalRepository.findById(lion.getId());
+            long statementsWhileCached = statistics.getPrepareStatementCount();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    animalRepository.updateAnimalReturningPrevious(lion.getId(), "Lioness", "Panthera leo"));
+            List<Animal> afterUpdate = animalRepository.findBySpecies("Panthera leo");
+
+            //Assert
+            Assertions.assertEquals(List.of("Lion"), cached.stream().map(Animal::getName).toList());
+            Assertions.assertEquals("Lion", byId.map(Animal::getName).orElse(null));
+            Assertions.assertEquals(0, statementsWhileCached);
+            Assertions.assertEquals(1, statistics.getQueryCacheHitCount());
+            Assertions.assertTrue(statistics.getSecondLevelCacheHitCount() >= 1);
+            Assertions.assertEquals(List.of("Lioness"), afterUpdate.stream().map(Animal::getName).toList());
+        } finally {
+            animalRepository.deleteAll();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package SAP1801.SWT301.AnimalUnitTest.repository.offheap;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Boots the whole application in the edge profile, so the @Primary wiring, lazy initialization and
+// the id filter's startup load are exercised against the off-heap repository
+@SpringBootTest(properties = "spring.profiles.active=edge")
+@AutoConfigureMockMvc
+class EdgeProfileTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @DynamicPropertySource
+    static void snapshotFile(DynamicPropertyRegistry registry) throws Exception {
+        registry.add("animal.edge.snapshot-file",
+                Files.createTempDirectory("edge-profile").resolve("animals.snapshot")::toString);
+    }
+
+    @Test
+    void EdgeProfile_CreateGetUpdateDeleteAnimal_ServeFromOffHeapRepository() throws Exception {
+        //Act
+        String body = mockMvc.perform(post("/animals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AnimalDto("Elephant", "Loxodonta"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readValue(body, Animal.class).getId();
+
+        //Assert
+        Assertions.assertInstanceOf(OffHeapAnimalRepository.class, animalRepository);
+        mockMvc.perform(get("/animals/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Elephant"));
+        mockMvc.perform(put("/animals/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AnimalDto("Elephant", "Elephas"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.species").value("Elephas"));
+        mockMvc.perform(delete("/animals/" + id)).andExpect(status().isOk());
+        mockMvc.perform(get("/animals/" + id)).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,171 @@
+package SAP1801.SWT301.AnimalUnitTest.repository.offheap;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRevision;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+class OffHeapAnimalRepositoryTest {
+    @TempDir
+    private Path directory;
+    private OffHeapAnimalRepository animalRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        animalRepository = new OffHeapAnimalRepository(directory.resolve("animals.snapshot"), 4);
+    }
+
+    @Test
+    void OffHeapAnimalRepository_Save_ReturnSavedAnimal() {
+        //Arrange
+        Animal animal = Animal.builder().name("Lion").species("Mammal").build();
+
+        //Act
+        Animal savedAnimal = animalRepository.save(animal);
+
+        //Assert
+        Assertions.assertEquals(1L, savedAnimal.getId());
+        Assertions.assertEquals(0L, savedAnimal.getVersion());
+        Assertions.assertEquals(Optional.of(new Animal(1L, "Lion", "Mammal", 0L, "mammal")), animalRepository.findById(1L));
+    }
+
+    @Test
+    void OffHeapAnimalRepository_SaveWithoutName_ThrowDataIntegrityViolation() {
+        //Arrange
+        Animal animal = Animal.builder().species("Mammal").build();
+
+        //Act & Assert
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> animalRepository.save(animal));
+        Assertions.assertEquals(0, animalRepository.count());
+    }
+
+    @Test
+    void OffHeapAnimalRepository_UpdateAnimalReturningPreviousWithVersion_ReturnEmptyForStaleVersion() {
+        //Arrange
+        Animal animal = animalRepository.save(Animal.builder().name("Lion").species("Mammal").build());
+
+        //Act
+        Optional<AnimalRevision> updated = animalRepository.updateAnimalReturningPrevious(animal.getId(), 0L, "Tiger", "Mammal");
+        Optional<AnimalRevision> stale = animalRepository.updateAnimalReturningPrevious(animal.getId(), 0L, "Cat", "Mammal");
+
+        //Assert
+        Assertions.assertEquals(Optional.of(new AnimalRevision("Mammal", 0L)), updated);
+        Assertions.assertTrue(stale.isEmpty());
+        Assertions.assertEquals(Optional.of(new AnimalRevision("Mammal", 1L)),
+                animalRepository.updateAnimalReturningPrevious(animal.getId(), "Tiger", "Mammal"));
+        Assertions.assertEquals("Tiger", animalRepository.findById(animal.getId()).orElseThrow().getName());
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> animalRepository.save(new Animal(animal.getId(), "Cat", "Mammal", 0L, null)));
+    }
+
+    @Test
+    void OffHeapAnimalRepository_FindBySpecies_ReturnAnimalsOfSpeciesInIdOrder() {
+        //Arrange
+        List<Animal> animals = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            animals.add(Animal.builder().name("Animal " + i).species(i % 3 == 0 ? "Bird" : "Mammal").build());
+        }
+        animalRepository.saveAll(animals);
+        animalRepository.updateAnimalReturningPrevious(3L, "Bat", "Mammal");
+        animalRepository.deleteAnimalReturningPrevious(4L);
+
+        //Act
+        List<Animal> birds = animalRepository.findBySpecies("Bird");
+        List<Animal> page = animalRepository.findBySpeciesAndIdGreaterThanOrderByIdAsc("Mammal", 1L, Limit.of(3));
+        List<Animal> ignoringCase = animalRepository.findBySpeciesKey("bird");
+
+        //Assert
+        Assertions.assertEquals(33, birds.size());
+        Assertions.assertEquals(List.of(1L, 7L, 10L), birds.stream().limit(3).map(Animal::getId).toList());
+        Assertions.assertEquals(List.of(2L, 3L, 5L), page.stream().map(Animal::getId).toList());
+        Assertions.assertEquals(birds, ignoringCase);
+        Assertions.assertEquals(List.of(new SpeciesCount("Bird", 33), new SpeciesCount("Mammal", 66)),
+                animalRepository.countBySpecies());
+    }
+
+    @Test
+    void OffHeapAnimalRepository_Snapshot_ReturnSameAnimalsAfterRestore() throws Exception {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            animalRepository.save(Animal.builder().name("Ánimal " + i).species("Species " + i % 7).build());
+        }
+        for (long id = 1; id <= 1000; id += 2) {
+            animalRepository.updateAnimalReturningPrevious(id, "Renamed " + id, "Species 0");
+        }
+        Assertions.assertEquals("Species 2", animalRepository.deleteAnimalReturningPrevious(10L).orElseThrow().species());
+        List<Animal> before = animalRepository.findAll();
+
+        //Act
+        animalRepository.snapshot();
+        OffHeapAnimalRepository restored = new OffHeapAnimalRepository(directory.resolve("animals.snapshot"), 4);
+        Animal next = restored.save(Animal.builder().name("Lion").species("Mammal").build());
+
+        //Assert
+        Assertions.assertEquals(before, restored.findAll().subList(0, before.size()));
+        Assertions.assertEquals(animalRepository.findBySpecies("Species 0"), restored.findBySpecies("Species 0"));
+        Assertions.assertEquals(1001L, next.getId());
+        try (Stream<Animal> animals = restored.streamAllByOrderByIdAsc()) {
+            Assertions.assertEquals(1000, animals.count());
+        }
+    }
+
+    @Test
+    void OffHeapAnimalRepository_FindAllPageable_ReturnSortedPage() {
+        //Arrange
+        for (String name : List.of("Tiger", "ant", "Lion", "Bear", "Zebra")) {
+            animalRepository.save(Animal.builder().name(name).species("Mammal").build());
+        }
+
+        //Act
+        Page<Animal> byId = animalRepository.findAll(PageRequest.of(1, 2));
+        Page<Animal> byName = animalRepository.findAll(PageRequest.of(0, 3, Sort.by(Sort.Order.desc("name").ignoreCase())));
+
+        //Assert
+        Assertions.assertEquals(List.of(3L, 4L), byId.map(Animal::getId).getContent());
+        Assertions.assertEquals(5, byId.getTotalElements());
+        Assertions.assertEquals(List.of("Zebra", "Tiger", "Lion"), byName.map(Animal::getName).getContent());
+        Assertions.assertEquals(2, byName.getTotalPages());
+        Assertions.assertThrows(PropertyReferenceException.class, () -> animalRepository.findAll(Sort.by("weight")));
+    }
+
+    @Test
+    void OffHeapAnimalRepository_FindAllByExample_ReturnMatchingAnimals() {
+        //Arrange
+        animalRepository.save(Animal.builder().name("Lion").species("Panthera leo").build());
+        animalRepository.save(Animal.builder().name("Sea Lion").species("Zalophus").build());
+        animalRepository.save(Animal.builder().name("Tiger").species("Panthera tigris").build());
+        ExampleMatcher startsWithIgnoreCase = ExampleMatcher.matching()
+                .withIgnoreCase()
+                .withStringMatcher(ExampleMatcher.StringMatcher.STARTING);
+
+        //Act
+        List<Animal> panthera = animalRepository.findAll(
+                Example.of(Animal.builder().species("PANTHERA").build(), startsWithIgnoreCase), Sort.by(Sort.Direction.DESC, "id"));
+        long lions = animalRepository.count(Example.of(Animal.builder().name("lion").build(),
+                ExampleMatcher.matching().withMatcher("name", matcher -> matcher.endsWith().ignoreCase())));
+
+        //Assert
+        Assertions.assertEquals(List.of("Tiger", "Lion"), panthera.stream().map(Animal::getName).toList());
+        Assertions.assertEquals(2, lions);
+        Assertions.assertTrue(animalRepository.findOne(Example.of(Animal.builder().name("Tiger").build())).isPresent());
+        Assertions.assertFalse(animalRepository.exists(Example.of(Animal.builder().name("tiger").build())));
+    }
+}
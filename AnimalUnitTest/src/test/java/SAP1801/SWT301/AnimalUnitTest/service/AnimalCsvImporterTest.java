@@ -0,0 +1,132 @@
+package SAP1801.SWT301.AnimalUnitTest.service;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchError;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalImportResult;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalImportInProgressException;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalCsvImporter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnimalCsvImporterTest {
+    @Mock
+    private AnimalService animalService;
+
+    @TempDir
+    private Path directory;
+
+    private final List<AnimalDto> written = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        // The importer reuses its batch list, so the rows are copied when the batch is written
+        lenient().when(animalService.createAnimals(ArgumentMatchers.<List<AnimalDto>>any())).thenAnswer(invocation -> {
+            List<AnimalDto> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return new AnimalBatchResult(batch.stream().map(dto -> new Animal(null, dto.getName(), dto.getSpecies())).toList(), List.of());
+        });
+    }
+
+    @Test
+    void AnimalCsvImporter_ImportFile_ReturnImportedAndRejectedLines() throws Exception {
+        //Arrange
+        Files.writeString(directory.resolve("animals.csv"),
+                "Name,Species\r\nElephant,Loxodonta\r\nLion\r\n\r\nTiger, the second,Panthera tigris\r\nEmu,\r\nÉland,Taurotragus",
+                StandardCharsets.UTF_8);
+        AnimalCsvImporter importer = new AnimalCsvImporter(animalService, directory, 4, 2);
+
+        //Act
+        AnimalImportResult result = importer.importFile("animals.csv");
+
+        //Assert
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(2, result.getRejected());
+        Assertions.assertEquals(List.of(new AnimalBatchError(3, "Expected name,species"), new AnimalBatchError(6, "Species must not be blank")),
+                result.getErrors());
+        Assertions.assertEquals(List.of(new AnimalDto("Elephant", "Loxodonta"), new AnimalDto("Tiger, the second", "Panthera tigris"),
+                new AnimalDto("Éland", "Taurotragus")), written);
+        verify(animalService, times(2)).createAnimals(any());
+    }
+
+    @Test
+    void AnimalCsvImporter_ImportFile_ReturnLineNumbersAcrossChunks() throws Exception {
+        //Arrange
+        int rows = 300_000;
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve("large.csv"))) {
+            for (int i = 1; i <= rows; i++) {
+                writer.write(i == 250_000 ? " ,Loxodonta\n" : "Animal " + i + ",Species " + i % 5 + "\n");
+            }
+        }
+        AnimalCsvImporter importer = new AnimalCsvImporter(animalService, directory, 4, 1000);
+
+        //Act
+        AnimalImportResult result = importer.importFile("large.csv");
+
+        //Assert
+        Assertions.assertEquals(rows - 1, result.getImported());
+        Assertions.assertEquals(List.of(new AnimalBatchError(250_000, "Name must not be blank")), result.getErrors());
+        Assertions.assertEquals(rows - 1, written.size());
+        Assertions.assertEquals(rows - 1, written.stream().map(AnimalDto::getName).distinct().count());
+    }
+
+    @Test
+    void AnimalCsvImporter_ImportFile_ThrowAnimalImportInProgressException() throws Exception {
+        //Arrange
+        Files.writeString(directory.resolve("animals.csv"), "Elephant,Loxodonta\n");
+        AnimalCsvImporter importer = new AnimalCsvImporter(animalService, directory, 1, 1000);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return new AnimalBatchResult(List.of(), List.of());
+        }).when(animalService).createAnimals(any());
+        CompletableFuture<AnimalImportResult> first = CompletableFuture.supplyAsync(() -> importer.importFile("animals.csv"));
+
+        //Act
+        writing.await();
+        AnimalImportInProgressException exception = Assertions.assertThrows(
+                AnimalImportInProgressException.class, () -> importer.importFile("animals.csv"));
+        release.countDown();
+
+        //Assert
+        Assertions.assertEquals("An import is already running", exception.getMessage());
+        Assertions.assertNotNull(first.get());
+        verify(animalService, times(1)).createAnimals(any());
+    }
+
+    @Test
+    void AnimalCsvImporter_ImportFileOutsideDirectory_ThrowIllegalArgumentException() throws Exception {
+        //Arrange
+        Path inside = Files.createDirectory(directory.resolve("import"));
+        Files.writeString(directory.resolve("secret.csv"), "Elephant,Loxodonta");
+        AnimalCsvImporter importer = new AnimalCsvImporter(animalService, inside, 4, 1000);
+
+        //Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> importer.importFile("../secret.csv"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> importer.importFile("missing.csv"));
+        verify(animalService, never()).createAnimals(any());
+    }
+}
@@ -0,0 +1,125 @@
+package SAP1801.SWT301.AnimalUnitTest.service;
+
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchError;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalIngestStatus;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalIngestRejectedException;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalIngestQueue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnimalIngestQueueTest {
+    @Mock
+    private AnimalService animalService;
+
+    @Test
+    void AnimalIngestQueue_Submit_ThrowAnimalIngestRejectedException() {
+        //Arrange
+        AnimalIngestQueue queue = new AnimalIngestQueue(animalService, 2, 500, Duration.ofMinutes(10));
+        queue.submit(new AnimalDto("Elephant", "Loxodonta"));
+        queue.submit(new AnimalDto("Lion", "Panthera leo"));
+
+        //Act & Assert
+        Assertions.assertThrows(AnimalIngestRejectedException.class, () -> queue.submit(new AnimalDto("Tiger", "Panthera tigris")));
+        verify(animalService, never()).createAnimals(any());
+    }
+
+    @Test
+    void AnimalIngestQueue_Stop_ReturnStatusesFromOneBatch() {
+        //Arrange
+        AnimalIngestQueue queue = new AnimalIngestQueue(animalService, 10, 500, Duration.ofMinutes(10));
+        when(animalService.createAnimals(ArgumentMatchers.<List<AnimalDto>>any())).thenReturn(new AnimalBatchResult(
+                List.of(new Animal(1L, "Elephant", "Loxodonta"), new Animal(2L, "Tiger", "Panthera tigris")),
+                List.of(new AnimalBatchError(1, "Duplicate name"))));
+        AnimalIngestStatus elephant = queue.submit(new AnimalDto("Elephant", "Loxodonta"));
+        AnimalIngestStatus lion = queue.submit(new AnimalDto("Lion", "Panthera leo"));
+        AnimalIngestStatus tiger = queue.submit(new AnimalDto("Tiger", "Panthera tigris"));
+
+        //Act
+        queue.start();
+        queue.stop();
+
+        //Assert
+        Assertions.assertEquals(AnimalIngestStatus.State.PENDING, elephant.getState());
+        Assertions.assertEquals(1L, queue.status(elephant.getToken()).orElseThrow().getId());
+        Assertions.assertEquals(AnimalIngestStatus.State.FAILED, queue.status(lion.getToken()).orElseThrow().getState());
+        Assertions.assertEquals("Duplicate name", queue.status(lion.getToken()).orElseThrow().getMessage());
+        Assertions.assertEquals(2L, queue.status(tiger.getToken()).orElseThrow().getId());
+        verify(animalService, times(1)).createAnimals(ArgumentMatchers.argThat(animals -> animals.size() == 3));
+    }
+
+    @Test
+    void AnimalIngestQueue_Submit_ThrowIllegalArgumentException() {
+        //Arrange
+        AnimalIngestQueue queue = new AnimalIngestQueue(animalService, 10, 500, Duration.ofMinutes(10));
+
+        //Act & Assert
+        IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class, () -> queue.submit(new AnimalDto(" ", "Loxodonta")));
+        Assertions.assertEquals("Name must not be blank", exception.getMessage());
+        queue.start();
+        queue.stop();
+        verify(animalService, never()).createAnimals(any());
+    }
+
+    @Test
+    void AnimalIngestQueue_Status_ReturnPendingAfterCompletedStatusesExpire() throws Exception {
+        //Arrange
+        AnimalIngestQueue queue = new AnimalIngestQueue(animalService, 10, 1, Duration.ofMillis(50));
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        CountDownLatch releaseSecond = new CountDownLatch(1);
+        when(animalService.createAnimals(ArgumentMatchers.<List<AnimalDto>>any()))
+                .thenAnswer(invocation -> {
+                    firstWritten.countDown();
+                    return new AnimalBatchResult(List.of(new Animal(1L, "Elephant", "Loxodonta")), List.of());
+                })
+                .thenAnswer(invocation -> {
+                    releaseSecond.await(5, TimeUnit.SECONDS);
+                    return new AnimalBatchResult(List.of(new Animal(2L, "Lion", "Panthera leo")), List.of());
+                });
+        AnimalIngestStatus elephant = queue.submit(new AnimalDto("Elephant", "Loxodonta"));
+        AnimalIngestStatus lion = queue.submit(new AnimalDto("Lion", "Panthera leo"));
+
+        //Act
+        queue.start();
+        Assertions.assertTrue(firstWritten.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        Optional<AnimalIngestStatus> expired = queue.status(elephant.getToken());
+        Optional<AnimalIngestStatus> stillPending = queue.status(lion.getToken());
+        releaseSecond.countDown();
+        queue.stop();
+
+        //Assert
+        Assertions.assertTrue(expired.isEmpty());
+        Assertions.assertEquals(AnimalIngestStatus.State.PENDING, stillPending.orElseThrow().getState());
+        Assertions.assertEquals(2L, queue.status(lion.getToken()).orElseThrow().getId());
+    }
+
+    @Test
+    void AnimalIngestQueue_SubmitAfterStop_ThrowAnimalIngestRejectedException() {
+        //Arrange
+        AnimalIngestQueue queue = new AnimalIngestQueue(animalService, 10, 500, Duration.ofMinutes(10));
+        queue.start();
+        queue.stop();
+
+        //Act & Assert
+        Assertions.assertThrows(AnimalIngestRejectedException.class, () -> queue.submit(new AnimalDto("Tiger", "Panthera tigris")));
+        verify(animalService, never()).createAnimals(any());
+    }
+}
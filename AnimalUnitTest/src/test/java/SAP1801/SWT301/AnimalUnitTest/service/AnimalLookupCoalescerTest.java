@@ -0,0 +1,176 @@
+package SAP1801.SWT301.AnimalUnitTest.service;
+
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangedEvent;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalLookupCoalescer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnimalLookupCoalescerTest {
+    @Mock
+    private AnimalRepository animalRepository;
+
+    private AnimalLookupCoalescer coalescer;
+    private ExecutorService callers;
+
+    private Animal elephant;
+    private Animal lion;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new AnimalLookupCoalescer(animalRepository, Duration.ofMillis(200), 100, Duration.ofSeconds(5));
+        callers = Executors.newFixedThreadPool(3);
+        elephant = new Animal(1L, "Elephant", "Loxodonta");
+        lion = new Animal(3L, "Lion", "Panthera leo");
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        coalescer.destroy();
+    }
+
+    @Test
+    void AnimalLookupCoalescer_Find_ReturnAnimalsFromOneBatchedQuery() throws Exception {
+        //Arrange
+        CountDownLatch firstLoading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(animalRepository.findById(1L)).thenAnswer(invocation -> {
+            firstLoading.countDown();
+            releaseFirst.await();
+            return Optional.of(elephant);
+        });
+        when(animalRepository.findAllById(List.of(3L, 7L))).thenReturn(List.of(lion));
+
+        //Act
+        Future<Optional<Animal>> first = callers.submit(() -> coalescer.find(1L));
+        // While the first lookup is loading, the others open a window and share one query
+        firstLoading.await();
+        Future<Optional<Animal>> second = callers.submit(() -> coalescer.find(3L));
+        Thread.sleep(20);
+        Future<Optional<Animal>> third = callers.submit(() -> coalescer.find(7L));
+        releaseFirst.countDown();
+
+        //Assert
+        Assertions.assertEquals(Optional.of(elephant), first.get());
+        Assertions.assertEquals(Optional.of(lion), second.get());
+        Assertions.assertEquals(Optional.empty(), third.get());
+        verify(animalRepository, times(1)).findById(1L);
+        verify(animalRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void AnimalLookupCoalescer_Find_ReturnAnimalWithoutWaitingForWindow() {
+        //Arrange
+        coalescer.destroy();
+        coalescer = new AnimalLookupCoalescer(animalRepository, Duration.ofSeconds(30), 100, Duration.ofSeconds(5));
+        when(animalRepository.findById(3L)).thenReturn(Optional.of(lion));
+
+        //Act
+        Optional<Animal> animal = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> coalescer.find(3L));
+
+        //Assert
+        Assertions.assertEquals(Optional.of(lion), animal);
+        verify(animalRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void AnimalLookupCoalescer_Find_ThrowQueryTimeoutException() throws Exception {
+        //Arrange
+        coalescer.destroy();
+        coalescer = new AnimalLookupCoalescer(animalRepository, Duration.ofMillis(200), 100, Duration.ofMillis(100));
+        CountDownLatch firstLoading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(animalRepository.findById(1L)).thenAnswer(invocation -> {
+            firstLoading.countDown();
+            releaseFirst.await();
+            return Optional.of(elephant);
+        });
+
+        //Act
+        Future<Optional<Animal>> first = callers.submit(() -> coalescer.find(1L));
+        firstLoading.await();
+        Future<Optional<Animal>> waiting = callers.submit(() -> coalescer.find(1L));
+
+        //Assert
+        ExecutionException thrown = Assertions.assertThrows(ExecutionException.class, waiting::get);
+        Assertions.assertInstanceOf(QueryTimeoutException.class, thrown.getCause());
+        releaseFirst.countDown();
+        Assertions.assertEquals(Optional.of(elephant), first.get());
+        verify(animalRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void AnimalLookupCoalescer_Find_ReturnAnimalReadAfterChange() throws Exception {
+        //Arrange
+        Animal updatedLion = new Animal(3L, "Updated Lion", "Panthera leo");
+        CountDownLatch firstLoading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(animalRepository.findById(3L))
+                .thenAnswer(invocation -> {
+                    firstLoading.countDown();
+                    releaseFirst.await();
+                    return Optional.of(lion);
+                })
+                .thenReturn(Optional.of(updatedLion));
+
+        //Act
+        Future<Optional<Animal>> first = callers.submit(() -> coalescer.find(3L));
+        firstLoading.await();
+        coalescer.onAnimalChanged(AnimalChangedEvent.updated(updatedLion, "Panthera leo"));
+        // Arrives after the change committed, so it must not join the lookup that read the old row
+        Future<Optional<Animal>> afterChange = callers.submit(() -> coalescer.find(3L));
+
+        //Assert
+        Assertions.assertEquals(Optional.of(updatedLion), afterChange.get());
+        releaseFirst.countDown();
+        Assertions.assertEquals(Optional.of(lion), first.get());
+        verify(animalRepository, times(2)).findById(3L);
+    }
+
+    @Test
+    void AnimalLookupCoalescer_Find_ReturnSharedResultForDuplicateIds() throws Exception {
+        //Arrange
+        CountDownLatch firstLoading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(animalRepository.findById(3L)).thenAnswer(invocation -> {
+            firstLoading.countDown();
+            releaseFirst.await();
+            return Optional.of(lion);
+        });
+
+        //Act
+        CompletableFuture<Optional<Animal>> first = CompletableFuture.supplyAsync(() -> coalescer.find(3L), callers);
+        firstLoading.await();
+        CompletableFuture<Optional<Animal>> second = CompletableFuture.supplyAsync(() -> coalescer.find(3L), callers);
+        Thread.sleep(20);
+        releaseFirst.countDown();
+
+        //Assert
+        Assertions.assertEquals(Optional.of(lion), first.get());
+        Assertions.assertEquals(Optional.of(lion), second.get());
+        verify(animalRepository, times(1)).findById(3L);
+        verify(animalRepository, never()).findAllById(any());
+    }
+}
@@ -0,0 +1,155 @@
+package SAP1801.SWT301.AnimalUnitTest.service;
+
+import SAP1801.SWT301.AnimalUnitTest.config.CacheConfig;
+import SAP1801.SWT301.AnimalUnitTest.controller.AnimalCacheController;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.CacheStatsDto;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRevision;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+// The repository is a mock, so the id filter would load an empty set and reject every id
+@SpringBootTest(properties = "animal.id-filter.enabled=false")
+class AnimalServiceCacheTest {
+    @MockBean
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private AnimalService animalService;
+
+    @Autowired
+    private AnimalCacheController animalCacheController;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Animal lion;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ANIMAL_CACHE).clear();
+        lion = new Animal(3L, "Lion", "Panthera leo");
+    }
+
+    @Test
+    void AnimalService_GetAnimalById_ReturnCachedAnimal() {
+        //Arrange
+        when(animalRepository.findById(3L)).thenReturn(Optional.of(lion));
+
+        //Act
+        Animal first = animalService.getAnimalById(3L);
+        Animal second = animalService.getAnimalById(3L);
+
+        //Assert
+        Assertions.assertEquals(lion, first);
+        Assertions.assertEquals(lion, second);
+        verify(animalRepository, times(1)).findById(3L);
+        CacheStatsDto stats = animalCacheController.getCacheStats().getBody();
+        Assertions.assertNotNull(stats);
+        Assertions.assertTrue(stats.getHitCount() >= 1);
+        Assertions.assertTrue(stats.getMissCount() >= 1);
+    }
+
+    @Test
+    void AnimalService_UpdateAnimal_RefreshCachedAnimal() {
+        //Arrange
+        when(animalRepository.findById(3L)).thenReturn(Optional.of(lion));
+        when(animalRepository.updateAnimalReturningPrevious(3L, "Updated Lion", "Panthera leo"))
+                .thenReturn(Optional.of(new AnimalRevision("Panthera leo", 1L)));
+        animalService.getAnimalById(3L);
+
+        //Act
+        animalService.updateAnimal(3L, new AnimalDto("Updated Lion", "Panthera leo"));
+        Animal cached = animalService.getAnimalById(3L);
+
+        //Assert
+        Assertions.assertEquals("Updated Lion", cached.getName());
+        verify(animalRepository, times(1)).findById(3L);
+    }
+
+    @Test
+    void AnimalService_DeleteAnimal_EvictCachedAnimal() {
+        //Arrange
+        when(animalRepository.findById(3L)).thenReturn(Optional.of(lion));
+        when(animalRepository.deleteAnimalReturningPrevious(3L)).thenReturn(Optional.of(new AnimalRevision("Panthera leo", 0L)));
+        animalService.getAnimalById(3L);
+
+        //Act
+        animalService.deleteAnimal(3L);
+        animalService.getAnimalById(3L);
+
+        //Assert
+        verify(animalRepository, times(2)).findById(3L);
+        verify(animalRepository, times(1)).deleteAnimalReturningPrevious(3L);
+    }
+
+    @Test
+    void AnimalService_GetAnimalById_ThrowAnimalNotFoundExceptionAfterDeleteOvertakesMiss() throws Exception {
+        //Arrange
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        when(animalRepository.findById(3L))
+                .thenAnswer(invocation -> {
+                    read.countDown();
+                    deleted.await(5, TimeUnit.SECONDS);
+                    return Optional.of(lion);
+                })
+                .thenReturn(Optional.empty());
+        when(animalRepository.deleteAnimalReturningPrevious(3L)).thenReturn(Optional.of(new AnimalRevision("Panthera leo", 0L)));
+
+        //Act
+        CompletableFuture<Animal> miss = CompletableFuture.supplyAsync(() -> animalService.getAnimalById(3L));
+        Assertions.assertTrue(read.await(5, TimeUnit.SECONDS));
+        animalService.deleteAnimal(3L);
+        deleted.countDown();
+        Animal readBeforeDelete = miss.get(5, TimeUnit.SECONDS);
+
+        //Assert
+        Assertions.assertEquals(lion, readBeforeDelete);
+        Assertions.assertThrows(AnimalNotFoundException.class, () -> animalService.getAnimalById(3L));
+        verify(animalRepository, times(2)).findById(3L);
+    }
+
+    @Test
+    void AnimalService_GetAnimalById_ReturnUpdatedAnimalAfterUpdateOvertakesMiss() throws Exception {
+        //Arrange
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        lion.setVersion(0L);
+        when(animalRepository.findById(3L)).thenAnswer(invocation -> {
+            read.countDown();
+            updated.await(5, TimeUnit.SECONDS);
+            return Optional.of(lion);
+        });
+        when(animalRepository.updateAnimalReturningPrevious(3L, "Updated Lion", "Panthera leo"))
+                .thenReturn(Optional.of(new AnimalRevision("Panthera leo", 0L)));
+
+        //Act
+        CompletableFuture<Animal> miss = CompletableFuture.supplyAsync(() -> animalService.getAnimalById(3L));
+        Assertions.assertTrue(read.await(5, TimeUnit.SECONDS));
+        animalService.updateAnimal(3L, new AnimalDto("Updated Lion", "Panthera leo"));
+        updated.countDown();
+        miss.get(5, TimeUnit.SECONDS);
+        Animal cached = animalService.getAnimalById(3L);
+
+        //Assert
+        Assertions.assertEquals("Updated Lion", cached.getName());
+        Assertions.assertEquals(1L, cached.getVersion());
+        verify(animalRepository, times(1)).findById(3L);
+    }
+}
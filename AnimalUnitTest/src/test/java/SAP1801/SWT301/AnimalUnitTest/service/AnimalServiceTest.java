@@ -1,19 +1,41 @@
 package SAP1801.SWT301.AnimalUnitTest.service;
 
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalBatchResult;
 import SAP1801.SWT301.AnimalUnitTest.dto.AnimalDto;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.AnimalSearchPage;
+import SAP1801.SWT301.AnimalUnitTest.dto.SpeciesCount;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangeFeed;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangeTracker;
+import SAP1801.SWT301.AnimalUnitTest.event.AnimalChangedEvent;
 import SAP1801.SWT301.AnimalUnitTest.exception.AnimalNotFoundException;
+import SAP1801.SWT301.AnimalUnitTest.exception.AnimalVersionConflictException;
 import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRepository;
+import SAP1801.SWT301.AnimalUnitTest.repository.AnimalRevision;
 import SAP1801.SWT301.AnimalUnitTest.model.Animal;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalIdFilter;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalLookupCoalescer;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalNameIndex;
 import SAP1801.SWT301.AnimalUnitTest.service.Impl.AnimalServiceImpl;
+import SAP1801.SWT301.AnimalUnitTest.service.Impl.SpeciesStatistics;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 
 import static org.mockito.ArgumentMatchers.any;
@@ -25,9 +47,23 @@ class AnimalServiceTest {
     @Mock
     private AnimalRepository animalRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AnimalChangeTracker changeTracker;
+
+    @Mock
+    private AnimalChangeFeed changeFeed;
+
+
 
-    @InjectMocks
     private AnimalServiceImpl animalService;
+    private SpeciesStatistics speciesStatistics;
+    private AnimalNameIndex nameIndex;
 
     private Animal elephant;
     private Animal lion;
@@ -36,6 +72,11 @@ class AnimalServiceTest {
 
     @BeforeEach
     void setUp() {
+        // A zero window keeps lookups on the calling thread so single-id calls stay plain findById calls
+        // The id filter is left unloaded, so every id reaches the repository
+        speciesStatistics = new SpeciesStatistics(animalRepository);
+        nameIndex = new AnimalNameIndex(animalRepository);
+        animalService = newAnimalService(new AnimalIdFilter(animalRepository, false));
         elephant = new Animal(1L, "Elephant", "Loxodonta");
         lion = new Animal(3L, "Lion", "Panthera leo");
         tiger = new Animal(4L, "Tiger", "Panthera tigris");
@@ -125,14 +166,31 @@ class AnimalServiceTest {
     void AnimalService_DeleteAnimal_ReturnVoid() {
         //Arrange
         Long animalId = 4L;
-        when(animalRepository.findById(animalId)).thenReturn(Optional.of(tiger));
+        when(animalRepository.deleteAnimalReturningPrevious(animalId)).thenReturn(Optional.of(new AnimalRevision("Panthera tigris", 0L)));
 
         //Act
         Assertions.assertDoesNotThrow(() -> animalService.deleteAnimal(animalId));
 
         //Assert
-        verify(animalRepository, times(1)).findById(animalId);
-        verify(animalRepository, times(1)).delete(tiger);
+        verify(animalRepository, times(1)).deleteAnimalReturningPrevious(animalId);
+        verify(animalRepository, never()).findById(animalId);
+        // One statement: the delete reports the species it removed, so nothing is read before it
+        verifyNoMoreInteractions(animalRepository);
+        verify(eventPublisher, times(1)).publishEvent(AnimalChangedEvent.deleted(animalId, "Panthera tigris"));
+    }
+
+    @Test
+    void AnimalService_DeleteAnimal_ThrowAnimalNotFoundException() {
+        //Arrange
+        Long notFoundAnimalId = 100L;
+        when(animalRepository.deleteAnimalReturningPrevious(notFoundAnimalId)).thenReturn(Optional.empty());
+
+        //Act & Assert
+        AnimalNotFoundException exception = Assertions.assertThrows(
+            AnimalNotFoundException.class, () -> animalService.deleteAnimal(notFoundAnimalId)
+        );
+
+        Assertions.assertEquals("Cannot found animal from the id", exception.getMessage());
     }
 
     @Test
@@ -142,10 +200,8 @@ class AnimalServiceTest {
         Long animalId = 3L;
         AnimalDto animalDto = new AnimalDto("Updated Lion", "Updated Panthera leo");
 
-        Animal updatedLion = new Animal(animalId, animalDto.getName(), animalDto.getSpecies());
-
-        when(animalRepository.findById(animalId)).thenReturn(Optional.of(lion));
-        when(animalRepository.save(any(Animal.class))).thenReturn(updatedLion);
+        when(animalRepository.updateAnimalReturningPrevious(animalId, animalDto.getName(), animalDto.getSpecies()))
+                .thenReturn(Optional.of(new AnimalRevision("Panthera leo", 2L)));
 
         //Act
         Animal result = animalService.updateAnimal(animalId, animalDto);
@@ -155,7 +211,334 @@ class AnimalServiceTest {
         Assertions.assertEquals(animalId, result.getId());
         Assertions.assertEquals(animalDto.getName(), result.getName());
         Assertions.assertEquals(animalDto.getSpecies(), result.getSpecies());
-        verify(animalRepository, times(1)).findById(animalId);
-        verify(animalRepository, times(1)).save(any(Animal.class));
+        verify(animalRepository, never()).findById(animalId);
+        verify(animalRepository, never()).save(any(Animal.class));
+        Assertions.assertEquals(3L, result.getVersion());
+        // One statement: the update reports the version it replaced, so nothing is read before or after it
+        verify(animalRepository, times(1)).updateAnimalReturningPrevious(animalId, animalDto.getName(), animalDto.getSpecies());
+        verifyNoMoreInteractions(animalRepository);
+        verify(eventPublisher, times(1)).publishEvent(AnimalChangedEvent.updated(result, "Panthera leo"));
+    }
+
+    @Test
+    void AnimalService_UpdateAnimalWithVersion_ReturnAnimal() {
+        //Arrange
+        AnimalDto animalDto = new AnimalDto("Updated Lion", "Panthera leo");
+        when(animalRepository.updateAnimalReturningPrevious(3L, 4L, animalDto.getName(), animalDto.getSpecies()))
+                .thenReturn(Optional.of(new AnimalRevision("Panthera leo", 4L)));
+
+        //Act
+        Animal result = animalService.updateAnimal(3L, animalDto, 4L);
+
+        //Assert
+        Assertions.assertEquals(5L, result.getVersion());
+        verify(animalRepository, times(1)).updateAnimalReturningPrevious(3L, 4L, animalDto.getName(), animalDto.getSpecies());
+        verifyNoMoreInteractions(animalRepository);
+        verify(eventPublisher, times(1)).publishEvent(AnimalChangedEvent.updated(result, "Panthera leo"));
+    }
+
+    @Test
+    void AnimalService_UpdateAnimalWithVersion_ThrowAnimalVersionConflictException() {
+        //Arrange
+        AnimalDto animalDto = new AnimalDto("Updated Lion", "Panthera leo");
+        when(animalRepository.updateAnimalReturningPrevious(3L, 4L, animalDto.getName(), animalDto.getSpecies())).thenReturn(Optional.empty());
+        when(animalRepository.existsById(3L)).thenReturn(true);
+
+        //Act & Assert
+        Assertions.assertThrows(AnimalVersionConflictException.class, () -> animalService.updateAnimal(3L, animalDto, 4L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void AnimalService_UpdateAnimal_ThrowAnimalNotFoundException() {
+        //Arrange
+        Long notFoundAnimalId = 100L;
+        AnimalDto animalDto = new AnimalDto("Updated Lion", "Updated Panthera leo");
+        when(animalRepository.updateAnimalReturningPrevious(notFoundAnimalId, animalDto.getName(), animalDto.getSpecies()))
+                .thenReturn(Optional.empty());
+
+        //Act & Assert
+        Assertions.assertThrows(AnimalNotFoundException.class, () -> animalService.updateAnimal(notFoundAnimalId, animalDto));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void AnimalService_GetAnimalPage_ReturnPageWithNextCursor() {
+        //Arrange
+        when(animalRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(List.of(elephant, lion, tiger));
+
+        //Act
+        AnimalPage page = animalService.getAnimalPage(null, 2);
+
+        //Assert
+        Assertions.assertEquals(List.of(elephant, lion), page.getContent());
+        Assertions.assertEquals(lion.getId(), page.getNextCursor());
+    }
+
+    @Test
+    void AnimalService_GetAnimalPageBySpecies_ReturnLastPage() {
+        //Arrange
+        String species = "Panthera tigris";
+        when(animalRepository.findBySpeciesAndIdGreaterThanOrderByIdAsc(species, 3L, Limit.of(11))).thenReturn(List.of(tiger, tiger2));
+
+        //Act
+        AnimalPage page = animalService.getAnimalPageBySpecies(species, 3L, 10);
+
+        //Assert
+        Assertions.assertEquals(List.of(tiger, tiger2), page.getContent());
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void AnimalService_GetAnimalPage_ThrowIllegalArgumentException() {
+        //Act & Assert
+        IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class, () -> animalService.getAnimalPage(null, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> animalService.getAnimalPageBySpecies("Panthera leo", null, -5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> animalService.searchAnimals("lion", 0, 0));
+
+        Assertions.assertEquals("Limit must be positive", exception.getMessage());
+        verifyNoInteractions(animalRepository);
+    }
+
+    @Test
+    void AnimalService_ExportAnimals_ReturnVoid() {
+        //Arrange
+        when(animalRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(elephant, lion));
+        List<Animal> exported = new ArrayList<>();
+
+        //Act
+        animalService.exportAnimals(exported::add);
+
+        //Assert
+        Assertions.assertEquals(List.of(elephant, lion), exported);
+        verify(entityManager, times(1)).detach(elephant);
+        verify(entityManager, times(1)).detach(lion);
+    }
+
+    @Test
+    void AnimalService_CreateAnimals_ReturnAnimalBatchResult() {
+        //Arrange
+        List<AnimalDto> animalDtos = List.of(
+                new AnimalDto("Elephant", "Loxodonta"),
+                new AnimalDto(" ", "Panthera leo"),
+                new AnimalDto("Tiger", "Panthera tigris"));
+        when(animalRepository.saveAll(ArgumentMatchers.<List<Animal>>any())).thenReturn(List.of(elephant, tiger));
+
+        //Act
+        AnimalBatchResult result = animalService.createAnimals(animalDtos);
+
+        //Assert
+        Assertions.assertEquals(List.of(elephant, tiger), result.getCreated());
+        Assertions.assertEquals(1, result.getErrors().size());
+        Assertions.assertEquals(1, result.getErrors().getFirst().getIndex());
+        Assertions.assertEquals("Name must not be blank", result.getErrors().getFirst().getMessage());
+        verify(animalRepository, times(1)).saveAll(ArgumentMatchers.<List<Animal>>argThat(animals -> animals.size() == 2));
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    void AnimalService_CreateAnimals_ThrowIllegalArgumentException() {
+        //Arrange
+        List<AnimalDto> animalDtos = Collections.nCopies(10_001, new AnimalDto("Elephant", "Loxodonta"));
+
+        //Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> animalService.createAnimals(animalDtos));
+        verify(animalRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void AnimalService_GetAnimalBySpeciesIgnoreCase_ReturnAnimalList() {
+        //Arrange
+        when(animalRepository.findBySpeciesKey("panthera tigris")).thenReturn(List.of(tiger, tiger2));
+
+        //Act
+        List<Animal> animals = animalService.getAnimalBySpeciesIgnoreCase("PANTHERA Tigris");
+
+        //Assert
+        Assertions.assertEquals(List.of(tiger, tiger2), animals);
+        verify(animalRepository, times(1)).findBySpeciesKey("panthera tigris");
+        verify(animalRepository, never()).findBySpecies(any());
+    }
+
+    @Test
+    void AnimalService_GetAnimalsByIds_ReturnAnimalsInRequestOrder() {
+        //Arrange
+        when(animalRepository.findAllById(Set.of(4L, 1L, 99L))).thenReturn(List.of(elephant, tiger));
+
+        //Act
+        List<Animal> animals = animalService.getAnimalsByIds(List.of(4L, 1L, 4L, 99L));
+
+        //Assert
+        Assertions.assertEquals(List.of(tiger, elephant), animals);
+        verify(animalRepository, times(1)).findAllById(any());
+        verify(animalRepository, never()).findById(any());
+    }
+
+    @Test
+    void AnimalService_GetAnimalsByIds_ThrowIllegalArgumentException() {
+        //Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        //Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> animalService.getAnimalsByIds(ids));
+        verify(animalRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void AnimalService_GetAnimalById_ThrowAnimalNotFoundExceptionWithoutQuery() {
+        //Arrange
+        AnimalIdFilter idFilter = new AnimalIdFilter(animalRepository, true);
+        when(animalRepository.findIdsAfter(0L, Limit.of(10_000))).thenReturn(List.of(1L, 3L));
+        idFilter.load();
+        animalService = newAnimalService(idFilter);
+
+        //Act
+        AnimalNotFoundException exception = Assertions.assertThrows(
+                AnimalNotFoundException.class, () -> animalService.getAnimalById(2L));
+        Assertions.assertThrows(AnimalNotFoundException.class, () -> animalService.deleteAnimal(2L));
+
+        //Assert
+        Assertions.assertEquals(0, exception.getStackTrace().length);
+        verify(animalRepository, never()).findById(any());
+        verify(animalRepository, never()).deleteAnimalReturningPrevious(any());
+    }
+
+    @Test
+    void AnimalService_GetAnimalById_ReturnAnimalAboveHighestLoadedId() {
+        //Arrange
+        AnimalIdFilter idFilter = new AnimalIdFilter(animalRepository, true);
+        when(animalRepository.findIdsAfter(0L, Limit.of(10_000))).thenReturn(List.of(1L, 3L));
+        idFilter.load();
+        animalService = newAnimalService(idFilter);
+        // Inserted by another writer, so the filter never saw it
+        when(animalRepository.findById(5L)).thenReturn(Optional.of(tiger2));
+
+        //Act
+        Animal animal = animalService.getAnimalById(5L);
+
+        //Assert
+        Assertions.assertEquals(tiger2, animal);
+        verify(animalRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void AnimalService_GetAnimalById_ReturnAnimalCreatedAfterLoad() {
+        //Arrange
+        AnimalIdFilter idFilter = new AnimalIdFilter(animalRepository, true);
+        when(animalRepository.findIdsAfter(0L, Limit.of(10_000))).thenReturn(List.of());
+        idFilter.load();
+        animalService = newAnimalService(idFilter);
+        when(animalRepository.findById(1L)).thenReturn(Optional.of(elephant));
+
+        //Act
+        idFilter.onAnimalCreated(AnimalChangedEvent.created(elephant));
+        Animal animal = animalService.getAnimalById(1L);
+        idFilter.onAnimalDeleted(AnimalChangedEvent.deleted(1L, "Loxodonta"));
+
+        //Assert
+        Assertions.assertEquals(elephant, animal);
+        Assertions.assertThrows(AnimalNotFoundException.class, () -> animalService.getAnimalById(1L));
+        verify(animalRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void AnimalService_GetSpeciesStats_ReturnIncrementalCounts() {
+        //Arrange
+        when(animalRepository.countBySpecies()).thenReturn(List.of(new SpeciesCount("Panthera leo", 2), new SpeciesCount("Loxodonta", 1)));
+        speciesStatistics.reconcile();
+
+        //Act
+        speciesStatistics.onAnimalChanged(AnimalChangedEvent.created(tiger));
+        speciesStatistics.onAnimalChanged(AnimalChangedEvent.updated(new Animal(3L, "Lion", "Panthera tigris"), "Panthera leo"));
+        speciesStatistics.onAnimalChanged(AnimalChangedEvent.updated(new Animal(2L, "Lioness", "Panthera leo"), "Panthera leo"));
+        speciesStatistics.onAnimalChanged(AnimalChangedEvent.deleted(1L, "Loxodonta"));
+        List<SpeciesCount> stats = animalService.getSpeciesStats();
+
+        //Assert
+        Assertions.assertEquals(List.of(new SpeciesCount("Panthera leo", 1), new SpeciesCount("Panthera tigris", 2)), stats);
+        verify(animalRepository, times(1)).countBySpecies();
+    }
+
+    @Test
+    void AnimalService_GetSpeciesStats_ReturnDecrementAfterDelete() {
+        //Arrange
+        when(animalRepository.countBySpecies()).thenReturn(List.of(new SpeciesCount("Panthera leo", 2)));
+        when(animalRepository.deleteAnimalReturningPrevious(3L)).thenReturn(Optional.of(new AnimalRevision("Panthera leo", 1L)));
+        doAnswer(invocation -> {
+            speciesStatistics.onAnimalChanged(invocation.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(AnimalChangedEvent.class));
+        speciesStatistics.reconcile();
+
+        //Act
+        animalService.deleteAnimal(3L);
+        List<SpeciesCount> stats = animalService.getSpeciesStats();
+
+        //Assert
+        Assertions.assertEquals(List.of(new SpeciesCount("Panthera leo", 1)), stats);
+        // Applied as a delta: the delete does not trigger a recount
+        verify(animalRepository, times(1)).countBySpecies();
+    }
+
+    @Test
+    void AnimalService_GetSpeciesStats_ReturnChangesCommittedDuringReconcile() {
+        //Arrange
+        when(animalRepository.countBySpecies())
+                .thenReturn(List.of(new SpeciesCount("Panthera leo", 2)))
+                .thenAnswer(invocation -> {
+                    // Committed after the GROUP BY read its rows, so its result does not include it
+                    speciesStatistics.onAnimalChanged(AnimalChangedEvent.created(tiger));
+                    return List.of(new SpeciesCount("Panthera leo", 2));
+                });
+        speciesStatistics.reconcile();
+
+        //Act
+        speciesStatistics.reconcile();
+        List<SpeciesCount> stats = animalService.getSpeciesStats();
+
+        //Assert
+        Assertions.assertEquals(List.of(new SpeciesCount("Panthera leo", 2), new SpeciesCount("Panthera tigris", 1)), stats);
+    }
+
+    @Test
+    void AnimalService_SearchAnimals_ReturnRankedIds() {
+        //Arrange
+        when(animalRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10_000))).thenReturn(List.of(lion, tiger, tiger2));
+        nameIndex.load();
+        nameIndex.onAnimalChanged(AnimalChangedEvent.created(new Animal(6L, "Sea Lion", "Zalophus")));
+        nameIndex.onAnimalChanged(AnimalChangedEvent.created(new Animal(7L, "Lionfish", "Pterois")));
+        nameIndex.onAnimalChanged(AnimalChangedEvent.updated(new Animal(5L, "Tigon", "Panthera hybrid"), "Panthera tigris"));
+
+        //Act
+        AnimalSearchPage substring = animalService.searchAnimals("LION", 0, 2);
+        AnimalSearchPage prefix = animalService.searchAnimals("ti", 0, 10);
+
+        //Assert
+        Assertions.assertEquals(List.of(3L, 7L), substring.getIds());
+        Assertions.assertEquals(3, substring.getTotal());
+        Assertions.assertEquals(2, substring.getNextOffset());
+        Assertions.assertEquals(List.of(4L, 5L), prefix.getIds());
+        Assertions.assertNull(prefix.getNextOffset());
+    }
+
+    @Test
+    void AnimalService_SearchAnimals_ReturnNoDeletedIds() {
+        //Arrange
+        when(animalRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10_000))).thenReturn(List.of(lion, tiger));
+        nameIndex.load();
+
+        //Act
+        nameIndex.onAnimalChanged(AnimalChangedEvent.deleted(3L, "Panthera leo"));
+        AnimalSearchPage page = animalService.searchAnimals("lio", 0, 10);
+
+        //Assert
+        Assertions.assertTrue(page.getIds().isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> animalService.searchAnimals(" ", 0, 10));
+    }
+
+    private AnimalServiceImpl newAnimalService(AnimalIdFilter idFilter) {
+        return new AnimalServiceImpl(animalRepository, entityManager, eventPublisher, changeTracker,
+                new AnimalLookupCoalescer(animalRepository, Duration.ZERO, 100, Duration.ofSeconds(5)), idFilter, speciesStatistics, nameIndex, changeFeed);
     }
 }